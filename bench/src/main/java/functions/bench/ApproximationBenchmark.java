@@ -0,0 +1,68 @@
+package functions.bench;
+
+import functions.Function;
+import functions.Functions;
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// вычисление исходной ф-ции против ее кусочного приближения рядами Чебышева
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApproximationBenchmark {
+    private static final int QUERIES = 1024;
+    private static final double LEFT = 0.5;
+    private static final double RIGHT = 10;
+
+    @Param({"exp", "log", "composite"})
+    public String function;
+
+    @Param({"original", "chebyshev"})
+    public String form;
+
+    private Function target;
+    private double[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Function original;
+        switch (function) {
+            case "exp":
+                original = new Exp();
+                break;
+            case "log":
+                original = new Log(Math.E);
+                break;
+            case "composite":
+                original = Functions.sum(Functions.power(new Sin(), 2),
+                        Functions.mult(new Log(10), Functions.composition(new Cos(), new Exp())));
+                break;
+            default:
+                throw new IllegalArgumentException(function);
+        }
+        target = form.equals("original") ? original : Functions.approximate(original, LEFT, RIGHT, 1e-9);
+
+        Random random = new Random(42);
+        queries = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = LEFT + random.nextDouble() * (RIGHT - LEFT);
+        }
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        double x = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        return target.getFunctionValue(x);
+    }
+}
@@ -0,0 +1,99 @@
+package functions.bench;
+
+import functions.Function;
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.FastCos;
+import functions.basic.FastExp;
+import functions.basic.FastLog;
+import functions.basic.FastSin;
+import functions.basic.FastTan;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ф-ции functions.basic: поштучно через getFunctionValue и пакетом через evaluate.
+// fast* - табличные варианты с погрешностью не больше FAST_ACCURACY
+// векторные ядра выходят на рабочую скорость только после компиляции C2, отсюда длинный прогрев
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class BasicFunctionBenchmark {
+    private static final int POINTS = 4096;
+    private static final double FAST_ACCURACY = 1e-7;
+
+    @Param({"sin", "cos", "tan", "exp", "log", "fastSin", "fastCos", "fastTan", "fastExp", "fastLog"})
+    public String name;
+
+    private Function function;
+    private double[] xs;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        switch (name) {
+            case "sin":
+                function = new Sin();
+                break;
+            case "cos":
+                function = new Cos();
+                break;
+            case "tan":
+                function = new Tan();
+                break;
+            case "exp":
+                function = new Exp();
+                break;
+            case "log":
+                function = new Log(Math.E);
+                break;
+            case "fastSin":
+                function = new FastSin(FAST_ACCURACY);
+                break;
+            case "fastCos":
+                function = new FastCos(FAST_ACCURACY);
+                break;
+            case "fastTan":
+                function = new FastTan(FAST_ACCURACY);
+                break;
+            case "fastExp":
+                function = new FastExp(FAST_ACCURACY);
+                break;
+            case "fastLog":
+                function = new FastLog(Math.E, FAST_ACCURACY);
+                break;
+            default:
+                throw new IllegalArgumentException(name);
+        }
+        Random random = new Random(42);
+        xs = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = 0.1 + random.nextDouble() * 20;
+        }
+        out = new double[POINTS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double getFunctionValue() {
+        double sum = 0;
+        for (double x : xs) {
+            sum += function.getFunctionValue(x);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] evaluate() {
+        function.evaluate(xs, out, 0, POINTS);
+        return out;
+    }
+}
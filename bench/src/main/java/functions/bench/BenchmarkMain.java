@@ -0,0 +1,29 @@
+package functions.bench;
+
+import java.util.Arrays;
+
+// точка входа benchmarks.jar: тот же разбор аргументов, что у org.openjdk.jmh.Main,
+// но по умолчанию результаты пишутся в jmh-result.json для отслеживания регрессий
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        boolean formatGiven = Arrays.asList(args).contains("-rf");
+        boolean fileGiven = Arrays.asList(args).contains("-rff");
+        String[] defaults = new String[(formatGiven ? 0 : 2) + (fileGiven ? 0 : 2)];
+        int i = 0;
+        if (!formatGiven) {
+            defaults[i++] = "-rf";
+            defaults[i++] = "json";
+        }
+        if (!fileGiven) {
+            defaults[i++] = "-rff";
+            defaults[i++] = "jmh-result.json";
+        }
+
+        String[] all = Arrays.copyOf(defaults, defaults.length + args.length);
+        System.arraycopy(args, 0, all, defaults.length, args.length);
+        org.openjdk.jmh.Main.main(all);
+    }
+}
@@ -0,0 +1,62 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.Function;
+import functions.TabulatedFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// чтение общей табулированной ф-ции из нескольких потоков:
+// оптимистичное чтение StampedLock против обертки с synchronized
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentReadBenchmark {
+    private static final int SIZE = 10000;
+
+    @Param({"stamped", "synchronized"})
+    public String implementation;
+
+    private Function function;
+
+    @Setup
+    public void setUp() {
+        double[] values = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = Math.sin(i * 0.01);
+        }
+        ArrayTabulatedFunction source = new ArrayTabulatedFunction(0, 100, values);
+        function = implementation.equals("stamped") ? TabulatedFunctions.concurrent(source) : new Synchronized(source);
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        return function.getFunctionValue(ThreadLocalRandom.current().nextDouble() * 100);
+    }
+
+    private static final class Synchronized implements Function {
+        private final Function function;
+
+        Synchronized(Function function) {
+            this.function = function;
+        }
+
+        public synchronized double getLeftDomainBorder() {
+            return function.getLeftDomainBorder();
+        }
+
+        public synchronized double getRightDomainBorder() {
+            return function.getRightDomainBorder();
+        }
+
+        public synchronized double getFunctionValue(double x) {
+            return function.getFunctionValue(x);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.Function;
+import functions.Functions;
+import functions.TabulatedFunctions;
+import functions.basic.Exp;
+import functions.basic.Sin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// адаптивное интегрирование sin(e^x) на [0, 6] правилами Гаусса-Кронрода и Симпсона
+// в одном и нескольких потоках и точный интеграл табулированной ф-ции по ее точкам
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntegrationBenchmark {
+    private static final double LEFT = 0;
+    private static final double RIGHT = 6;
+
+    @State(Scope.Benchmark)
+    public static class Adaptive {
+        @Param({"gaussKronrod", "simpson"})
+        public String rule;
+
+        @Param({"1", "4"})
+        public int parallelism;
+
+        @Param({"1e-6", "1e-10"})
+        public double tolerance;
+
+        Function function;
+
+        @Setup
+        public void setUp() {
+            function = Functions.composition(new Exp(), new Sin());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Tabulated {
+        @Param({"1000", "1000000"})
+        public int size;
+
+        ArrayTabulatedFunction function;
+
+        @Setup
+        public void setUp() {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = Math.sin(Math.exp(LEFT + (RIGHT - LEFT) * i / (size - 1)));
+            }
+            function = new ArrayTabulatedFunction(LEFT, RIGHT, values);
+        }
+    }
+
+    @Benchmark
+    public double adaptive(Adaptive state) {
+        return state.rule.equals("simpson")
+                ? Functions.integrateSimpson(state.function, LEFT, RIGHT, state.tolerance, state.parallelism)
+                : Functions.integrate(state.function, LEFT, RIGHT, state.tolerance, state.parallelism);
+    }
+
+    @Benchmark
+    public double tabulated(Tabulated state) {
+        return TabulatedFunctions.integrate(state.function);
+    }
+}
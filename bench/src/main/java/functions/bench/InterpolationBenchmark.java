@@ -0,0 +1,62 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.Interpolation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// стоимость вычисления значения и изменения точки в разных режимах интерполяции;
+// у естественного сплайна изменение точки пересчитывает все коэффициенты
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class InterpolationBenchmark {
+    private static final int QUERIES = 1024;
+    private static final double LEFT = 0;
+    private static final double RIGHT = Math.PI;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"LINEAR", "NATURAL_SPLINE", "AKIMA", "MONOTONE"})
+    public Interpolation interpolation;
+
+    private ArrayTabulatedFunction function;
+    private double[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(LEFT + (RIGHT - LEFT) * i / (size - 1));
+        }
+        function = new ArrayTabulatedFunction(LEFT, RIGHT, values);
+        function.setInterpolation(interpolation);
+
+        Random random = new Random(42);
+        queries = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = LEFT + random.nextDouble() * (RIGHT - LEFT);
+        }
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        double x = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        return function.getFunctionValue(x);
+    }
+
+    @Benchmark
+    public void setPointY() {
+        int index = next % size;
+        next = (next + 1) & (QUERIES - 1);
+        function.setPointY(index, function.getPointY(index));
+    }
+}
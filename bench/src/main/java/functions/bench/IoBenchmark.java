@@ -0,0 +1,114 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.LinkedListTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ввод-вывод табулированных ф-ций в памяти: двоичный и сжатый форматы TabulatedFunctions,
+// Externalizable для массива и Serializable для списка. текстовый формат - в TextIoBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class IoBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private ArrayTabulatedFunction array;
+    private LinkedListTabulatedFunction linkedList;
+
+    private byte[] binary;
+    private byte[] compressed;
+    private byte[] externalized;
+    private byte[] serialized;
+
+    private ByteArrayOutputStream bytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        // неравномерная сетка и негладкие значения, чтобы не упрощать задачу сжатию
+        Random random = new Random(42);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(i * 0.001) + random.nextGaussian() * 1e-3;
+        }
+        array = new ArrayTabulatedFunction(0, size, values);
+        linkedList = new LinkedListTabulatedFunction(0, size, values);
+        for (int i = 1; i < size - 1; i += 2) {
+            array.setPointX(i, array.getPointX(i) + 0.25);
+        }
+
+        bytes = new ByteArrayOutputStream(size * 20);
+        binary = outputTabulatedFunction().toByteArray();
+        compressed = outputCompressed().toByteArray();
+        externalized = writeExternal().toByteArray();
+        serialized = writeObject().toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream outputTabulatedFunction() throws IOException {
+        bytes.reset();
+        TabulatedFunctions.outputTabulatedFunction(array, bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public TabulatedFunction inputTabulatedFunction() throws IOException {
+        return TabulatedFunctions.inputTabulatedFunction(new ByteArrayInputStream(binary));
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream outputCompressed() throws IOException {
+        bytes.reset();
+        TabulatedFunctions.outputCompressed(array, bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public TabulatedFunction inputCompressed() throws IOException {
+        return TabulatedFunctions.inputCompressed(new ByteArrayInputStream(compressed));
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeExternal() throws IOException {
+        bytes.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            array.writeExternal(out);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public TabulatedFunction readExternal() throws IOException, ClassNotFoundException {
+        ArrayTabulatedFunction function = new ArrayTabulatedFunction();
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(externalized))) {
+            function.readExternal(in);
+        }
+        return function;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeObject() throws IOException {
+        bytes.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(linkedList);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public Object readObject() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
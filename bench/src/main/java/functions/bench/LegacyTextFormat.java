@@ -0,0 +1,79 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.TabulatedFunction;
+
+import java.io.*;
+
+// прежняя реализация текстового ввода-вывода TabulatedFunctions (StreamTokenizer и PrintWriter),
+// сохраненная как точка отсчета для TextIoBenchmark. StreamTokenizer не понимает
+// экспоненциальную запись, поэтому данные бенчмарка подобраны без нее
+final class LegacyTextFormat {
+
+    private LegacyTextFormat() {}
+
+    // запись ф-ции в символьный поток
+    static void writeTabulatedFunction(TabulatedFunction function, Writer out) throws IOException {
+        PrintWriter writer = new PrintWriter(out);
+
+        // записываем кол-во точек
+        writer.print(function.getPointsCount());
+        writer.print(" ");
+
+        for (int i = 0; i < function.getPointsCount(); i++) {
+            writer.print(function.getPointX(i));
+            writer.print(" ");
+            writer.print(function.getPointY(i));
+            if (i < function.getPointsCount() - 1) {
+                writer.print(" ");
+            }
+        }
+
+        writer.flush();
+    }
+
+    // считывание ф-ции из символьного потока
+    static TabulatedFunction readTabulatedFunction(Reader in) throws IOException {
+
+        if (in == null) {
+            throw new IllegalArgumentException("передан нулевой поток ввода");
+        }
+
+        StreamTokenizer tokenizer = new StreamTokenizer(in);
+        tokenizer.parseNumbers();
+
+        // считываем число точек
+        int tokenType = tokenizer.nextToken();
+        if (tokenType != StreamTokenizer.TT_NUMBER) {
+            throw new IOException("не найдено количество точек");
+        }
+        int count = (int) tokenizer.nval;
+
+        // создаем массив для хранения точек
+        FunctionPoint[] functionPoints = new FunctionPoint[count];
+
+        // считываем пары
+        for (int i = 0; i < count; i++) {
+            // считываем x координату
+            tokenType = tokenizer.nextToken();
+            if (tokenType != StreamTokenizer.TT_NUMBER) {
+                throw new IOException("отсутствует x координата для точки " + i);
+            }
+            double xCoord = tokenizer.nval;
+
+            // считываем y координату
+            tokenType = tokenizer.nextToken();
+            if (tokenType != StreamTokenizer.TT_NUMBER) {
+                throw new IOException("отсутствует y координата для точки " + i);
+            }
+            double yCoord = tokenizer.nval;
+
+            // создаем точку с полученными координатами
+            functionPoints[i] = new FunctionPoint(xCoord, yCoord);
+        }
+
+        // возвращаем новую табулированную ф-цию
+        return new ArrayTabulatedFunction(functionPoints);
+    }
+}
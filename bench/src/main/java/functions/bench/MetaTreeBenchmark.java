@@ -0,0 +1,82 @@
+package functions.bench;
+
+import functions.Function;
+import functions.Functions;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Sin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// табулирование глубоких деревьев functions.meta: как есть, после simplify и после compile
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class MetaTreeBenchmark {
+    private static final int POINTS = 10000;
+
+    @Param({"4", "16", "64"})
+    public int depth;
+
+    @Param({"tree", "simplified", "compiled"})
+    public String form;
+
+    private Function function;
+
+    @Setup
+    public void setUp() {
+        Function tree = build(depth);
+        switch (form) {
+            case "tree":
+                function = tree;
+                break;
+            case "simplified":
+                function = Functions.simplify(tree);
+                break;
+            case "compiled":
+                function = Functions.compile(tree);
+                break;
+            default:
+                throw new IllegalArgumentException(form);
+        }
+    }
+
+    // чередует все виды узлов, значения остаются ограниченными на любой глубине
+    static Function build(int depth) {
+        Function f = new Sin();
+        for (int level = 0; level < depth; level++) {
+            switch (level % 6) {
+                case 0:
+                    f = Functions.shift(f, 0.01, 0.1);
+                    break;
+                case 1:
+                    f = Functions.scale(f, 1.001, 0.9);
+                    break;
+                case 2:
+                    f = Functions.sum(f, new Cos());
+                    break;
+                case 3:
+                    f = Functions.composition(new Sin(), f);
+                    break;
+                case 4:
+                    f = Functions.mult(f, Functions.composition(new Exp(), new Cos()));
+                    break;
+                default:
+                    f = Functions.power(f, 2);
+                    break;
+            }
+        }
+        return f;
+    }
+
+    @Benchmark
+    public TabulatedFunction tabulate() {
+        return TabulatedFunctions.tabulate(function, 0, 10, POINTS);
+    }
+}
@@ -0,0 +1,46 @@
+package functions.bench;
+
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.TabulatedFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// добавление точки в середину интервала и ее удаление; после операции ф-ция
+// возвращается в исходное состояние, поэтому размер не меняется между вызовами
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class MutationBenchmark {
+    private static final double LEFT = 0;
+    private static final double RIGHT = 100;
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"array", "linkedList"})
+    public String implementation;
+
+    private TabulatedFunction function;
+    private double step;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        function = TabulatedValueBenchmark.create(implementation, new double[size]);
+        step = (RIGHT - LEFT) / (size - 1);
+    }
+
+    @Benchmark
+    public int addAndDeletePoint() throws InappropriateFunctionPointException {
+        // интервалы перебираются с простым шагом, чтобы не попадать всегда в одно место
+        counter = (counter + 7919) % (size - 1);
+        function.addPoint(new FunctionPoint(LEFT + step * counter + step / 2, 1));
+        function.deletePoint(counter + 1);
+        return function.getPointsCount();
+    }
+}
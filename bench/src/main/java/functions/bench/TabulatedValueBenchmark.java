@@ -0,0 +1,82 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.LinkedListTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.UniformGridTabulatedFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// вычисление табулированной ф-ции в случайных точках и упорядоченным набором;
+// равномерная сетка считает набор векторным ядром, поэтому прогрев длиннее
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class TabulatedValueBenchmark {
+    private static final int QUERIES = 1024;
+    private static final double LEFT = 0;
+    private static final double RIGHT = 100;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"array", "linkedList", "uniformGrid"})
+    public String implementation;
+
+    private TabulatedFunction function;
+    private double[] queries;
+    private double[] sortedQueries;
+    private double[] out;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.sin(LEFT + (RIGHT - LEFT) * i / (size - 1));
+        }
+        function = create(implementation, values);
+
+        Random random = new Random(42);
+        queries = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = LEFT + random.nextDouble() * (RIGHT - LEFT);
+        }
+        sortedQueries = queries.clone();
+        Arrays.sort(sortedQueries);
+        out = new double[QUERIES];
+    }
+
+    static TabulatedFunction create(String implementation, double[] values) {
+        switch (implementation) {
+            case "array":
+                return new ArrayTabulatedFunction(LEFT, RIGHT, values);
+            case "linkedList":
+                return new LinkedListTabulatedFunction(LEFT, RIGHT, values);
+            case "uniformGrid":
+                return new UniformGridTabulatedFunction(LEFT, RIGHT, values);
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public double getFunctionValue() {
+        double x = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        return function.getFunctionValue(x);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public double[] evaluateSorted() {
+        function.evaluate(sortedQueries, out, 0, QUERIES);
+        return out;
+    }
+}
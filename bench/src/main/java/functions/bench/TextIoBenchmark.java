@@ -0,0 +1,73 @@
+package functions.bench;
+
+import functions.ArrayTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// текстовый ввод-вывод TabulatedFunctions против прежней реализации на StreamTokenizer
+// и PrintWriter (LegacyTextFormat). обе читают и пишут один и тот же текст
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class TextIoBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"current", "legacy"})
+    public String implementation;
+
+    private ArrayTabulatedFunction array;
+    private String text;
+    private CharArrayWriter chars;
+
+    @Setup
+    public void setUp() throws Exception {
+        // значения в [1, 3] и абсциссы меньше 1e7 записываются без экспоненты,
+        // которую прежний разбор не понимает
+        Random random = new Random(42);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 2 + Math.sin(i * 0.001) + random.nextGaussian() * 1e-3;
+        }
+        array = new ArrayTabulatedFunction(0, size - 1, values);
+        for (int i = 1; i < size - 1; i += 2) {
+            array.setPointX(i, array.getPointX(i) + 0.25);
+        }
+
+        chars = new CharArrayWriter(size * 40);
+        text = write().toString();
+        // обе реализации должны понимать один и тот же текст
+        if (read().getPointsCount() != size) {
+            throw new IllegalStateException("Текст прочитан не полностью");
+        }
+    }
+
+    @Benchmark
+    public CharArrayWriter write() throws IOException {
+        chars.reset();
+        if (implementation.equals("legacy")) {
+            LegacyTextFormat.writeTabulatedFunction(array, chars);
+        } else {
+            TabulatedFunctions.writeTabulatedFunction(array, chars);
+        }
+        return chars;
+    }
+
+    @Benchmark
+    public TabulatedFunction read() throws IOException {
+        return implementation.equals("legacy")
+                ? LegacyTextFormat.readTabulatedFunction(new StringReader(text))
+                : TabulatedFunctions.readTabulatedFunction(new StringReader(text));
+    }
+}
@@ -0,0 +1,34 @@
+package functions;
+
+import functions.basic.Sin;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachedFunctionTest {
+
+    @Test
+    void sizeNeverExceedsCapacity() {
+        for (CacheSpec spec : new CacheSpec[]{CacheSpec.lru(10).segmented(4), CacheSpec.clock(10).segmented(3)}) {
+            CachedFunction function = Functions.cached(new Sin(), spec);
+            for (int i = 0; i < 1000; i++) {
+                function.getFunctionValue(i);
+            }
+            assertEquals(10, function.size());
+        }
+    }
+
+    @Test
+    void valuesMatchAcrossSegments() {
+        Sin sin = new Sin();
+        CachedFunction function = Functions.cached(sin, CacheSpec.lru(4096).segmented(8));
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 3000; i++) {
+                double x = i * 0.001;
+                assertEquals(sin.getFunctionValue(x), function.getFunctionValue(x));
+            }
+        }
+        assertEquals(3000, function.getHits());
+        assertEquals(3000, function.getMisses());
+    }
+}
@@ -0,0 +1,212 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// читатели в режиме оптимистичного чтения против писателя, который добавляет и удаляет точки.
+// писатель проходит состояния S_0 ... S_m и обратно, поэтому любое прочитанное значение
+// должно совпасть со значением в одном из этих состояний. точек много и добавляются они
+// у левого края, чтобы сдвиг массивов под блокировкой записи занимал большую часть времени
+// писателя: тогда читатели чаще застают запись и на одном процессоре
+class ConcurrentTabulatedFunctionStressTest {
+    private static final int READERS = 4;
+    private static final int CYCLES = 3000;
+    private static final int POINTS = 20000;
+    // добавляемые точки: внутри, справа и слева, чтобы менялись и значения, и границы;
+    // их больше трех, поэтому массивы ArrayTabulatedFunction перевыделяются
+    private static final double[] ADDED_X = {0.5, POINTS, -1, POINTS + 1, 1.5, POINTS + 2, -2, 2.5};
+
+    private static double addedY(int j) {
+        return 100 + 10 * j;
+    }
+
+    private static ArrayTabulatedFunction base() {
+        double[] values = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            values[i] = (double) i * i;
+        }
+        return new ArrayTabulatedFunction(0, POINTS - 1, values);
+    }
+
+    @Test
+    void readsMatchSomeSnapshot() throws Exception {
+        // запросы у левого края, где меняются значения, и по всей области с выходом за границы
+        double[] queries = new double[128];
+        for (int q = 0; q < 64; q++) {
+            queries[q] = -3 + 8.0 * q / 63;
+            queries[64 + q] = -3 + (POINTS + 6.0) * q / 63;
+        }
+
+        // ожидаемые значения в каждом состоянии
+        int states = ADDED_X.length + 1;
+        double[][] values = new double[states][queries.length];
+        double[] lefts = new double[states];
+        double[] rights = new double[states];
+        int[] counts = new int[states];
+        // индекс точки ADDED_X[j] в состоянии S_{j + 1}, из которого она удаляется
+        int[] deleteIndex = new int[ADDED_X.length];
+        ArrayTabulatedFunction snapshot = base();
+        for (int k = 0; k < states; k++) {
+            if (k > 0) {
+                snapshot.addPoint(new FunctionPoint(ADDED_X[k - 1], addedY(k - 1)));
+                int index = 0;
+                while (snapshot.getPointX(index) != ADDED_X[k - 1]) {
+                    index++;
+                }
+                deleteIndex[k - 1] = index;
+            }
+            for (int q = 0; q < queries.length; q++) {
+                values[k][q] = snapshot.getFunctionValue(queries[q]);
+            }
+            lefts[k] = snapshot.getLeftDomainBorder();
+            rights[k] = snapshot.getRightDomainBorder();
+            counts[k] = snapshot.getPointsCount();
+        }
+
+        ConcurrentTabulatedFunction function = TabulatedFunctions.concurrent(base());
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            long seed = r;
+            Thread reader = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    while (!done.get()) {
+                        int q = random.nextInt(queries.length);
+                        double value = function.getFunctionValue(queries[q]);
+                        if (!matches(value, values, q)) {
+                            failures.add("f(" + queries[q] + ") = " + value);
+                        }
+                        if (!contains(lefts, function.getLeftDomainBorder())) {
+                            failures.add("левая граница вне снимков");
+                        }
+                        if (!contains(rights, function.getRightDomainBorder())) {
+                            failures.add("правая граница вне снимков");
+                        }
+                        int count = function.getPointsCount();
+                        boolean known = false;
+                        for (int c : counts) {
+                            known |= c == count;
+                        }
+                        if (!known) {
+                            failures.add("число точек " + count);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        // писатель: добавляет точки по порядку, затем удаляет в обратном
+        try {
+            for (int cycle = 0; cycle < CYCLES && failures.isEmpty(); cycle++) {
+                for (int j = 0; j < ADDED_X.length; j++) {
+                    function.addPoint(new FunctionPoint(ADDED_X[j], addedY(j)));
+                }
+                for (int j = ADDED_X.length - 1; j >= 0; j--) {
+                    function.deletePoint(deleteIndex[j]);
+                }
+            }
+        } finally {
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " несогласованных чтений, первое: " + failures.peek());
+        assertEquals(POINTS, function.getPointsCount());
+    }
+
+    @Test
+    void integralsMatchSomeSnapshot() throws Exception {
+        // писатель добавляет и удаляет последнюю точку и меняет значение в первой; интеграл
+        // считается за один проход по точкам и должен совпасть с интегралом одного из снимков
+        int points = 2000;
+        double[] values = new double[points];
+        for (int i = 0; i < points; i++) {
+            values[i] = i;
+        }
+        List<Double> wholes = new ArrayList<>();
+        List<Double> parts = new ArrayList<>();
+        for (int state = 0; state < 4; state++) {
+            ArrayTabulatedFunction snapshot = new ArrayTabulatedFunction(0, points - 1, values);
+            snapshot.setPointY(0, state % 2);
+            if (state >= 2) {
+                snapshot.addPoint(new FunctionPoint(points, 5));
+            }
+            wholes.add(TabulatedFunctions.integrate(snapshot));
+            parts.add(Functions.integrate(snapshot, 0.5, points - 1, 1e-6));
+        }
+
+        ConcurrentTabulatedFunction function = TabulatedFunctions.concurrent(new ArrayTabulatedFunction(0, points - 1, values));
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        double whole = TabulatedFunctions.integrate(function);
+                        if (!wholes.contains(whole)) {
+                            failures.add("интеграл по области " + whole);
+                        }
+                        double part = Functions.integrate(function, 0.5, points - 1, 1e-6);
+                        if (!parts.contains(part)) {
+                            failures.add("интеграл по [0.5, " + (points - 1) + "] " + part);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        try {
+            for (int cycle = 0; cycle < CYCLES && failures.isEmpty(); cycle++) {
+                function.addPoint(new FunctionPoint(points, 5));
+                function.setPointY(0, 1);
+                function.deletePoint(points);
+                function.setPointY(0, 0);
+            }
+        } finally {
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " несогласованных интегралов, первый: " + failures.peek());
+    }
+
+    private static boolean matches(double value, double[][] values, int q) {
+        for (double[] state : values) {
+            if (Double.compare(state[q], value) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(double[] candidates, double value) {
+        for (double candidate : candidates) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
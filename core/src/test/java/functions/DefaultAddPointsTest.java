@@ -0,0 +1,90 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultAddPointsTest {
+
+    // сторонняя реализация без собственного addPoints: все вызовы передаются массиву
+    private static final class Delegating implements TabulatedFunction {
+        private final ArrayTabulatedFunction target;
+        int added;
+
+        Delegating(ArrayTabulatedFunction target) {
+            this.target = target;
+        }
+
+        public double getLeftDomainBorder() {
+            return target.getLeftDomainBorder();
+        }
+
+        public double getRightDomainBorder() {
+            return target.getRightDomainBorder();
+        }
+
+        public double getFunctionValue(double x) {
+            return target.getFunctionValue(x);
+        }
+
+        public int getPointsCount() {
+            return target.getPointsCount();
+        }
+
+        public FunctionPoint getPoint(int index) {
+            return target.getPoint(index);
+        }
+
+        public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+            target.setPoint(index, point);
+        }
+
+        public double getPointX(int index) {
+            return target.getPointX(index);
+        }
+
+        public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+            target.setPointX(index, x);
+        }
+
+        public double getPointY(int index) {
+            return target.getPointY(index);
+        }
+
+        public void setPointY(int index, double y) {
+            target.setPointY(index, y);
+        }
+
+        public void deletePoint(int index) {
+            target.deletePoint(index);
+        }
+
+        public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+            target.addPoint(point);
+            added++;
+        }
+    }
+
+    @Test
+    void addsThroughAddPoint() throws Exception {
+        Delegating function = new Delegating(new ArrayTabulatedFunction(0, 4, new double[]{0, 1, 2}));
+        function.addPoints(new double[]{5, 1, 3}, new double[]{50, 10, 30});
+        assertEquals(3, function.added);
+        assertEquals(6, function.getPointsCount());
+        double[] expected = {0, 1, 2, 3, 4, 5};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], function.getPointX(i));
+        }
+    }
+
+    @Test
+    void rejectedBatchLeavesFunctionUnchanged() {
+        Delegating function = new Delegating(new ArrayTabulatedFunction(0, 4, new double[]{0, 1, 2}));
+        assertThrows(InappropriateFunctionPointException.class,
+                () -> function.addPoints(new FunctionPoint[]{new FunctionPoint(5, 0), new FunctionPoint(2, 0)}));
+        assertThrows(InappropriateFunctionPointException.class,
+                () -> function.addPoints(new double[]{6, 6}, new double[]{0, 1}));
+        assertEquals(0, function.added);
+        assertEquals(3, function.getPointsCount());
+    }
+}
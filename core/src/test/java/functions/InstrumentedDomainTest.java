@@ -0,0 +1,26 @@
+package functions;
+
+import functions.basic.Sin;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedDomainTest {
+
+    @Test
+    void metaNodeSeesTabulatedLeafChanges() throws Exception {
+        FunctionMetrics.reset();
+        ArrayTabulatedFunction tab = new ArrayTabulatedFunction(0, 4, new double[]{0, 1, 2, 3, 4});
+        Function model = Functions.instrumented(Functions.sum(tab, new Sin()), "domain");
+        tab.addPoint(new FunctionPoint(5, 5));
+
+        model.getFunctionValue(4.5);
+        model.evaluate(new double[]{4.5, 4.75}, new double[2], 0, 2);
+        assertEquals(0, FunctionMetrics.snapshot("domain").getOutOfDomain());
+
+        tab.deletePoint(5);
+        tab.deletePoint(4);
+        model.getFunctionValue(3.5);
+        assertEquals(1, FunctionMetrics.snapshot("domain").getOutOfDomain());
+    }
+}
@@ -0,0 +1,25 @@
+package functions;
+
+import functions.basic.Exp;
+import functions.basic.Sin;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntegratorRoundoffTest {
+
+    @Test
+    void toleranceBelowRoundoffIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Functions.integrate(new Exp(), 0, 10, 1e-15));
+        assertThrows(IllegalArgumentException.class, () -> Functions.integrate(new Exp(), 0, 10, 1e-15, 4));
+        assertThrows(IllegalArgumentException.class, () -> Functions.integrateSimpson(new Exp(), 0, 10, 1e-15));
+    }
+
+    @Test
+    void achievableToleranceIsMet() {
+        double exact = Math.exp(10) - 1;
+        assertEquals(exact, Functions.integrate(new Exp(), 0, 10, 1e-8), 1e-8);
+        assertEquals(exact, Functions.integrate(new Exp(), 0, 10, 1e-8, 4), 1e-8);
+        assertEquals(2, Functions.integrate(new Sin(), 0, Math.PI, 1e-13), 1e-13);
+    }
+}
@@ -0,0 +1,44 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterpolationCopyTest {
+
+    private static ArrayTabulatedFunction source(Interpolation interpolation) {
+        ArrayTabulatedFunction function = new ArrayTabulatedFunction(0, 6, new double[]{0, 1, 4, 2, 5, 3, 6});
+        function.setInterpolation(interpolation);
+        return function;
+    }
+
+    @Test
+    void concurrentKeepsInterpolation() {
+        for (Interpolation interpolation : Interpolation.values()) {
+            ArrayTabulatedFunction function = source(interpolation);
+            ConcurrentTabulatedFunction copy = TabulatedFunctions.concurrent(function);
+            assertEquals(interpolation, copy.getInterpolation());
+            for (double x = 0; x <= 6; x += 0.1) {
+                assertEquals(function.getFunctionValue(x), copy.getFunctionValue(x), 1e-12, interpolation + " x=" + x);
+            }
+        }
+    }
+
+    @Test
+    void concurrentSwitchesInterpolation() {
+        ArrayTabulatedFunction function = source(Interpolation.LINEAR);
+        ConcurrentTabulatedFunction copy = TabulatedFunctions.concurrent(function);
+        function.setInterpolation(Interpolation.AKIMA);
+        copy.setInterpolation(Interpolation.AKIMA);
+        assertEquals(function.getFunctionValue(2.3), copy.getFunctionValue(2.3), 1e-12);
+        assertEquals(Interpolation.AKIMA, TabulatedFunctions.concurrent(copy).getInterpolation());
+    }
+
+    @Test
+    void persistentRejectsCubicSource() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TabulatedFunctions.persistent(source(Interpolation.NATURAL_SPLINE)));
+        PersistentTabulatedFunction copy = TabulatedFunctions.persistent(source(Interpolation.LINEAR));
+        assertEquals(3.0, copy.getFunctionValue(2.5), 1e-12);
+    }
+}
@@ -0,0 +1,57 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterpolationSerializationTest {
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T function) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(function);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
+    private static FunctionPoint[] sinPoints() {
+        FunctionPoint[] points = new FunctionPoint[11];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new FunctionPoint(i * 0.1, Math.sin(i * 0.1));
+        }
+        return points;
+    }
+
+    private static void assertSameValues(TabulatedFunction expected, TabulatedFunction actual) {
+        for (double x = 0; x <= 1; x += 0.05) {
+            assertEquals(expected.getFunctionValue(x), actual.getFunctionValue(x), 0, "x=" + x);
+        }
+    }
+
+    @Test
+    void arrayKeepsInterpolation() throws Exception {
+        for (Interpolation interpolation : Interpolation.values()) {
+            ArrayTabulatedFunction function = new ArrayTabulatedFunction(sinPoints());
+            function.setInterpolation(interpolation);
+            ArrayTabulatedFunction copy = roundTrip(function);
+            assertEquals(interpolation, copy.getInterpolation());
+            assertSameValues(function, copy);
+        }
+    }
+
+    @Test
+    void linkedListKeepsInterpolation() throws Exception {
+        for (Interpolation interpolation : Interpolation.values()) {
+            LinkedListTabulatedFunction function = new LinkedListTabulatedFunction(sinPoints());
+            function.setInterpolation(interpolation);
+            LinkedListTabulatedFunction copy = roundTrip(function);
+            assertEquals(interpolation, copy.getInterpolation());
+            assertSameValues(function, copy);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NanArgumentTest {
+
+    @Test
+    void everyTabulatedFunctionReturnsNanForNan() {
+        double[] values = {3, 1, 4, 1, 5};
+        TabulatedFunction[] functions = {
+                new ArrayTabulatedFunction(0, 4, values),
+                new LinkedListTabulatedFunction(0, 4, values),
+                new UniformGridTabulatedFunction(0, 4, values),
+                TabulatedFunctions.persistent(new ArrayTabulatedFunction(0, 4, values)),
+                TabulatedFunctions.concurrent(new ArrayTabulatedFunction(0, 4, values)),
+        };
+        for (TabulatedFunction function : functions) {
+            assertTrue(Double.isNaN(function.getFunctionValue(Double.NaN)), function.getClass().getSimpleName());
+            double[] out = new double[1];
+            function.evaluate(new double[]{Double.NaN}, out, 0, 1);
+            assertTrue(Double.isNaN(out[0]), function.getClass().getSimpleName() + ".evaluate");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package functions;
+
+import functions.basic.Sin;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabulateAdaptiveTest {
+
+    private static final Function HOLED = holed(2, 2.05);
+
+    // sin(20x) на [0, 4] с дырой в области определения на [from, to]
+    private static Function holed(double from, double to) {
+        Function sin = Functions.scale(new Sin(), 1.0 / 20, 1);
+        return new Function() {
+            public double getLeftDomainBorder() {
+                return 0;
+            }
+
+            public double getRightDomainBorder() {
+                return 4;
+            }
+
+            public double getFunctionValue(double x) {
+                return x >= from && x <= to ? Double.NaN : sin.getFunctionValue(x);
+            }
+        };
+    }
+
+    @Test
+    void undefinedErrorsDoNotHideSplits() {
+        // интервалов с NaN больше, чем свободных точек: порог отбора не должен стать NaN
+        TabulatedFunction function = TabulatedFunctions.tabulateAdaptive(holed(1.9, 3.1), 0, 4, 1e-9, 20);
+        assertEquals(20, function.getPointsCount());
+    }
+
+    @Test
+    void tiedErrorsUseWholeBudget() {
+        // у x^2 на равномерной сетке погрешности всех интервалов равны
+        Function square = new Function() {
+            public double getLeftDomainBorder() {
+                return 0;
+            }
+
+            public double getRightDomainBorder() {
+                return 1;
+            }
+
+            public double getFunctionValue(double x) {
+                return x * x;
+            }
+        };
+        TabulatedFunction function = TabulatedFunctions.tabulateAdaptive(square, 0, 1, 1e-6, 20);
+        assertEquals(20, function.getPointsCount());
+    }
+
+    @Test
+    void undefinedSamplesDoNotStopRefinement() {
+        TabulatedFunction function = TabulatedFunctions.tabulateAdaptive(HOLED, 0, 4, 1e-9, 200);
+        // погрешность везде больше допуска, поэтому весь запас точек должен быть израсходован
+        assertEquals(200, function.getPointsCount());
+        int undefined = 0;
+        for (int i = 0; i < function.getPointsCount(); i++) {
+            if (Double.isNaN(function.getPointY(i))) {
+                undefined++;
+            }
+        }
+        // внутри дыры точки не сгущаются
+        assertTrue(undefined < 10, "точек в дыре: " + undefined);
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        TabulatedFunction sequential = TabulatedFunctions.tabulateAdaptive(HOLED, 0, 4, 1e-5, 500);
+        TabulatedFunction parallel = TabulatedFunctions.tabulateAdaptive(HOLED, 0, 4, 1e-5, 500, 3);
+        assertEquals(sequential.getPointsCount(), parallel.getPointsCount());
+        for (int i = 0; i < sequential.getPointsCount(); i++) {
+            assertEquals(sequential.getPointX(i), parallel.getPointX(i));
+        }
+    }
+}
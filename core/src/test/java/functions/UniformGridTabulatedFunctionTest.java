@@ -0,0 +1,65 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniformGridTabulatedFunctionTest {
+
+    private static UniformGridTabulatedFunction roundTrip(UniformGridTabulatedFunction function) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(function);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (UniformGridTabulatedFunction) in.readObject();
+        }
+    }
+
+    private static void assertSamePoints(TabulatedFunction expected, TabulatedFunction actual) {
+        assertEquals(expected.getPointsCount(), actual.getPointsCount());
+        for (int i = 0; i < expected.getPointsCount(); i++) {
+            assertEquals(expected.getPointX(i), actual.getPointX(i));
+            assertEquals(expected.getPointY(i), actual.getPointY(i));
+        }
+        assertEquals(expected.getLeftDomainBorder(), actual.getLeftDomainBorder());
+        assertEquals(expected.getRightDomainBorder(), actual.getRightDomainBorder());
+    }
+
+    @Test
+    void uniformRoundTrip() throws Exception {
+        UniformGridTabulatedFunction function = new UniformGridTabulatedFunction(0, 6, new double[]{0, 1, 4, 9, 16, 25, 36});
+        UniformGridTabulatedFunction copy = roundTrip(function);
+        assertTrue(copy.isUniform());
+        assertSamePoints(function, copy);
+        assertEquals(function.getFunctionValue(2.5), copy.getFunctionValue(2.5));
+    }
+
+    @Test
+    void explicitRoundTrip() throws Exception {
+        UniformGridTabulatedFunction function = new UniformGridTabulatedFunction(0, 6, new double[]{0, 1, 4, 9, 16, 25, 36});
+        function.setPoint(3, new FunctionPoint(3.5, 12));
+        assertFalse(function.isUniform());
+        UniformGridTabulatedFunction copy = roundTrip(function);
+        assertFalse(copy.isUniform());
+        assertEquals(7, copy.getPointsCount());
+        assertSamePoints(function, copy);
+        assertEquals(function.getFunctionValue(3.2), copy.getFunctionValue(3.2));
+    }
+
+    @Test
+    void rejectedChangesKeepGridUniform() throws Exception {
+        UniformGridTabulatedFunction function = new UniformGridTabulatedFunction(0, 6, new double[]{0, 1, 4, 9, 16, 25, 36});
+        assertThrows(InappropriateFunctionPointException.class, () -> function.addPoint(new FunctionPoint(3, 0)));
+        assertThrows(InappropriateFunctionPointException.class, () -> function.setPoint(3, new FunctionPoint(2, 0)));
+        assertThrows(InappropriateFunctionPointException.class, () -> function.setPointX(3, 4.5));
+        assertTrue(function.isUniform());
+        assertEquals(7, function.getPointsCount());
+
+        function.addPoint(new FunctionPoint(2.5, 6));
+        assertFalse(function.isUniform());
+        assertEquals(6, function.getFunctionValue(2.5));
+    }
+}
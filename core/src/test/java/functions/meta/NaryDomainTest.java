@@ -0,0 +1,28 @@
+package functions.meta;
+
+import functions.ArrayTabulatedFunction;
+import functions.Function;
+import functions.FunctionPoint;
+import functions.basic.Exp;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NaryDomainTest {
+
+    @Test
+    void bordersFollowMutableLeaves() throws Exception {
+        ArrayTabulatedFunction leaf = new ArrayTabulatedFunction(0, 4, new double[]{0, 1, 2, 3, 4});
+        Function[] functions = {leaf, new Exp()};
+        NarySum sum = new NarySum(functions, 1);
+        NaryMult mult = new NaryMult(functions, 2);
+
+        leaf.addPoint(new FunctionPoint(6, 6));
+        leaf.deletePoint(0);
+
+        assertEquals(1, sum.getLeftDomainBorder());
+        assertEquals(6, sum.getRightDomainBorder());
+        assertEquals(1, mult.getLeftDomainBorder());
+        assertEquals(6, mult.getRightDomainBorder());
+    }
+}
@@ -1,11 +1,21 @@
 package functions;
 
 import java.io.*;
+import java.util.Arrays;
 
 public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable {
-    private FunctionPoint[] points;
+    // координаты точек хранятся в двух параллельных массивах примитивов
+    private double[] xs;
+    private double[] ys;
     private int pointsCount;
     private static final double EPSILON = 1e-10;
+    // режим интерполяции и коэффициенты кубических многочленов на интервалах
+    // (см. CubicInterpolation); в линейном режиме массивы коэффициентов не создаются.
+    // кубический режим сериализуется после точек, коэффициенты при чтении вычисляются заново
+    private Interpolation interpolation = Interpolation.LINEAR;
+    private double[] bs;
+    private double[] cs;
+    private double[] ds;
 
     // создает табулированную ф-цию с нулевыми значениями
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
@@ -17,12 +27,13 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         }
 
         this.pointsCount = pointsCount;
-        points = new FunctionPoint[pointsCount + 3];
+        xs = new double[pointsCount + 3];
+        ys = new double[pointsCount + 3];
 
         double step = (rightX - leftX) / (pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++) {
-            points[i] = new FunctionPoint(leftX + step * i, 0);
+            xs[i] = leftX + step * i;
         }
     }
 
@@ -36,12 +47,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         }
 
         pointsCount = values.length;
-        points = new FunctionPoint[pointsCount + 3];
+        xs = new double[pointsCount + 3];
+        ys = new double[pointsCount + 3];
 
         double step = (rightX - leftX) / (pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++) {
-            points[i] = new FunctionPoint(leftX + step * i, values[i]);
+            xs[i] = leftX + step * i;
+            ys[i] = values[i];
         }
     }
 
@@ -63,69 +76,214 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         }
 
         this.pointsCount = points.length;
-        this.points = new FunctionPoint[pointsCount + 3];
+        this.xs = new double[pointsCount + 3];
+        this.ys = new double[pointsCount + 3];
 
-        // создаем копии точек для обеспечения инкапсуляции
+        // копируем координаты, сами точки не сохраняем для обеспечения инкапсуляции
         for (int i = 0; i < pointsCount; i++) {
-            this.points[i] = new FunctionPoint(points[i]);
+            this.xs[i] = points[i].getX();
+            this.ys[i] = points[i].getY();
         }
     }
 
+    // принимает готовые массивы координат без копирования и проверок,
+    // используется внутри пакета, когда массивы уже заполнены и упорядочены
+    ArrayTabulatedFunction(double[] xs, double[] ys, int pointsCount) {
+        this.xs = xs;
+        this.ys = ys;
+        this.pointsCount = pointsCount;
+    }
+
+    // массивы координат для чтения без копирования внутри пакета
+    double[] xsArray() {
+        return xs;
+    }
+
+    double[] ysArray() {
+        return ys;
+    }
+
     public void writeExternal(ObjectOutput out) throws IOException {
-        out.writeInt(pointsCount);
+        FunctionEvents.Serialization event = new FunctionEvents.Serialization("write", ArrayTabulatedFunction.class);
+        event.begin();
+        // у линейной ф-ции формат прежний; отрицательное кол-во ~pointsCount означает,
+        // что после точек записан номер режима интерполяции
+        boolean cubic = interpolation != Interpolation.LINEAR;
+        out.writeInt(cubic ? ~pointsCount : pointsCount);
         for (int i = 0; i < pointsCount; i++) {
-            out.writeDouble(points[i].getX());
-            out.writeDouble(points[i].getY());
+            out.writeDouble(xs[i]);
+            out.writeDouble(ys[i]);
+        }
+        if (cubic) {
+            out.writeByte(interpolation.ordinal());
         }
+        event.end(pointsCount);
     }
 
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        FunctionEvents.Serialization event = new FunctionEvents.Serialization("read", ArrayTabulatedFunction.class);
+        event.begin();
         int count = in.readInt();
-        points = new FunctionPoint[count + 3];
+        boolean cubic = count < 0;
+        if (cubic) {
+            count = ~count;
+        }
+        xs = new double[count + 3];
+        ys = new double[count + 3];
         pointsCount = count;
         for (int i = 0; i < count; i++) {
-            double x = in.readDouble();
-            double y = in.readDouble();
-            points[i] = new FunctionPoint(x, y);
+            xs[i] = in.readDouble();
+            ys[i] = in.readDouble();
+        }
+        interpolation = Interpolation.LINEAR;
+        bs = null;
+        cs = null;
+        ds = null;
+        if (cubic) {
+            setInterpolation(Interpolation.read(in));
+        }
+        event.end(count);
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    // выбирает режим интерполяции и вычисляет коэффициенты для всех интервалов
+    public void setInterpolation(Interpolation interpolation) {
+        if (interpolation == null) {
+            throw new IllegalArgumentException("Режим интерполяции не задан");
+        }
+        this.interpolation = interpolation;
+        if (interpolation == Interpolation.LINEAR) {
+            bs = cs = ds = null;
+            return;
         }
+        bs = new double[xs.length];
+        cs = new double[xs.length];
+        ds = new double[xs.length];
+        updateCoefficients(0, pointsCount);
+    }
+
+    // производные в точках для кубических режимов, null в линейном; массив не копируется
+    double[] slopes() {
+        return bs;
+    }
+
+    // остальные коэффициенты кубических многочленов, тоже без копирования
+    double[] csArray() {
+        return cs;
+    }
+
+    double[] dsArray() {
+        return ds;
+    }
+
+    // пересчитывает производные в точках [from, to) и коэффициенты затронутых интервалов
+    private void updateCoefficients(int from, int to) {
+        if (bs == null) {
+            return;
+        }
+        from = Math.max(from, 0);
+        to = Math.min(to, pointsCount);
+        CubicInterpolation.slopes(interpolation, xs, ys, pointsCount, bs, cs, from, to);
+        if (interpolation == Interpolation.NATURAL_SPLINE || pointsCount == 2) {
+            // производные изменились во всех точках
+            from = 0;
+            to = pointsCount;
+        }
+        CubicInterpolation.coefficients(xs, ys, bs, cs, ds, Math.max(from - 1, 0), Math.min(to, pointsCount - 1));
+    }
+
+    // после изменения точки index меняются производные только в ближайших точках
+    private void updateCoefficientsAround(int index) {
+        updateCoefficients(index - CubicInterpolation.REACH, index + CubicInterpolation.REACH + 1);
     }
 
     // возвращает левую границу обл. опр. ф-ции
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xs[0];
     }
 
     // возвращает правую границу обл. опр. ф-ции
     public double getRightDomainBorder() {
-        return points[pointsCount - 1].getX();
+        return xs[pointsCount - 1];
     }
 
     // вычисляет значение ф-ции в заданной точке
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+        return valueAt(xs, ys, bs, cs, ds, pointsCount, x);
+    }
+
+    // то же с кубическими коэффициентами; если хоть одного массива нет, интерполяция линейная
+    static double valueAt(double[] xs, double[] ys, double[] bs, double[] cs, double[] ds, int count, double x) {
+        if (bs == null || cs == null || ds == null) {
+            return valueAt(xs, ys, count, x);
+        }
+        if (x < xs[0] - EPSILON || x > xs[count - 1] + EPSILON) {
+            return Double.NaN;
+        }
+        int i = TabulatedSearch.interpolationSearch(xs, count, x);
+        return CubicInterpolation.value(xs, ys, bs, cs, ds, i, x, EPSILON);
+    }
+
+    // значение ф-ции, заданной первыми count точками массивов, в точке x
+    static double valueAt(double[] xs, double[] ys, int count, double x) {
+        if (x < xs[0] - EPSILON || x > xs[count - 1] + EPSILON) {
             return Double.NaN;
         }
 
-        // ищем точку с таким же X
-        for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(points[i].getX() - x) < EPSILON) {
-                return points[i].getY();
+        // ищем интервал, содержащий x; на почти равномерных сетках хватает одной пробы
+        return valueInInterval(xs, ys, TabulatedSearch.interpolationSearch(xs, count, x), x);
+    }
+
+    // вычисляет значения в наборе точек; если точки упорядочены,
+    // интервалы находятся одним проходом слиянием с массивом абсцисс
+    public void evaluate(double[] points, double[] out, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (!(points[i - 1] <= points[i])) {
+                for (int j = from; j < to; j++) {
+                    out[j] = getFunctionValue(points[j]);
+                }
+                return;
             }
         }
 
-        // если совпадения нет - ищем интервал для интерполяции
-        for (int i = 0; i < pointsCount - 1; i++) {
-            double x1 = points[i].getX();
-            double x2 = points[i + 1].getX();
-
-            if (x >= x1 - EPSILON && x <= x2 + EPSILON) {
-                double y1 = points[i].getY();
-                double y2 = points[i + 1].getY();
-                return ((x - x1) * (y2 - y1)) / (x2 - x1) + y1;
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        int interval = 0;
+        for (int i = from; i < to; i++) {
+            double x = points[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
+                continue;
+            }
+            while (interval < pointsCount - 2 && xs[interval + 1] <= x) {
+                interval++;
             }
+            out[i] = bs == null
+                    ? valueInInterval(xs, ys, interval, x)
+                    : CubicInterpolation.value(xs, ys, bs, cs, ds, interval, x, EPSILON);
+        }
+    }
+
+    // значение ф-ции в точке x, лежащей в интервале [xs[i], xs[i + 1]]
+    private static double valueInInterval(double[] xs, double[] ys, int i, double x) {
+        double x1 = xs[i];
+        double x2 = xs[i + 1];
+
+        // точки отстоят друг от друга больше чем на EPSILON,
+        // поэтому совпасть с x могут только концы найденного интервала
+        if (Math.abs(x1 - x) < EPSILON) {
+            return ys[i];
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return ys[i + 1];
         }
 
-        return Double.NaN;
+        double y1 = ys[i];
+        double y2 = ys[i + 1];
+        return ((x - x1) * (y2 - y1)) / (x2 - x1) + y1;
     }
 
     // возвращает количество точек в ф-ции
@@ -138,7 +296,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(xs[index], ys[index]);
     }
 
     // заменяет точку по указанному индексу
@@ -150,14 +308,16 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         double newX = point.getX();
 
         // Проверка корректности новой координаты X
-        if (index > 0 && newX <= points[index - 1].getX() + EPSILON) {
+        if (index > 0 && newX <= xs[index - 1] + EPSILON) {
             throw new InappropriateFunctionPointException("Новая координата X должна быть больше X предыдущей точки");
         }
-        if (index < pointsCount - 1 && newX >= points[index + 1].getX() - EPSILON) {
+        if (index < pointsCount - 1 && newX >= xs[index + 1] - EPSILON) {
             throw new InappropriateFunctionPointException("Новая координата X должна быть меньше X следующей точки");
         }
 
-        points[index] = new FunctionPoint(point);
+        xs[index] = newX;
+        ys[index] = point.getY();
+        updateCoefficientsAround(index);
     }
 
     // возвращает координату x точки по индексу
@@ -165,7 +325,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
         }
-        return points[index].getX();
+        return xs[index];
     }
 
     // возвращает координату y точки по индексу
@@ -173,12 +333,15 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
         }
-        return points[index].getY();
+        return ys[index];
     }
 
     // изменяет координату x точки по индексу
     public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
-        setPoint(index, new FunctionPoint(x, points[index].getY()));
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
+        }
+        setPoint(index, new FunctionPoint(x, ys[index]));
     }
 
     // изменяет координату y точки по индексу
@@ -186,7 +349,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
         }
-        points[index].setY(y);
+        ys[index] = y;
+        updateCoefficientsAround(index);
     }
 
     // удаляет точку по указанному индексу
@@ -198,8 +362,15 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
             throw new IllegalStateException("Невозможно удалить точку - функция должна иметь как минимум 2 точки");
         }
 
-        System.arraycopy(points, index + 1, points, index, pointsCount - index - 1);
+        System.arraycopy(xs, index + 1, xs, index, pointsCount - index - 1);
+        System.arraycopy(ys, index + 1, ys, index, pointsCount - index - 1);
+        if (bs != null) {
+            System.arraycopy(bs, index + 1, bs, index, pointsCount - index - 1);
+            System.arraycopy(cs, index + 1, cs, index, pointsCount - index - 1);
+            System.arraycopy(ds, index + 1, ds, index, pointsCount - index - 1);
+        }
         pointsCount--;
+        updateCoefficientsAround(index);
     }
 
     // добавляет новую точку в ф-цию
@@ -208,27 +379,92 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Externalizable
 
         // проверка на существование точки с такой же координатой
         for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(points[i].getX() - newX) < EPSILON) {
+            if (Math.abs(xs[i] - newX) < EPSILON) {
                 throw new InappropriateFunctionPointException("Точка с X = " + newX + " уже существует");
             }
         }
 
         // увеличение массива
-        if (pointsCount == points.length) {
-            FunctionPoint[] newPoints = new FunctionPoint[points.length * 2];
-            System.arraycopy(points, 0, newPoints, 0, pointsCount);
-            points = newPoints;
+        if (pointsCount == xs.length) {
+            xs = Arrays.copyOf(xs, xs.length * 2);
+            ys = Arrays.copyOf(ys, ys.length * 2);
+            if (bs != null) {
+                bs = Arrays.copyOf(bs, xs.length);
+                cs = Arrays.copyOf(cs, xs.length);
+                ds = Arrays.copyOf(ds, xs.length);
+            }
         }
 
         // поиск места для вставки
         int insertIndex = 0;
-        while (insertIndex < pointsCount && points[insertIndex].getX() < newX - EPSILON) {
+        while (insertIndex < pointsCount && xs[insertIndex] < newX - EPSILON) {
             insertIndex++;
         }
 
         // вставка точки
-        System.arraycopy(points, insertIndex, points, insertIndex + 1, pointsCount - insertIndex);
-        points[insertIndex] = new FunctionPoint(point);
+        System.arraycopy(xs, insertIndex, xs, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(ys, insertIndex, ys, insertIndex + 1, pointsCount - insertIndex);
+        xs[insertIndex] = newX;
+        ys[insertIndex] = point.getY();
+        if (bs != null) {
+            System.arraycopy(bs, insertIndex, bs, insertIndex + 1, pointsCount - insertIndex);
+            System.arraycopy(cs, insertIndex, cs, insertIndex + 1, pointsCount - insertIndex);
+            System.arraycopy(ds, insertIndex, ds, insertIndex + 1, pointsCount - insertIndex);
+        }
         pointsCount++;
+        updateCoefficientsAround(insertIndex);
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        addPoints(PointBatch.of(points));
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        addPoints(PointBatch.of(xs, ys));
+    }
+
+    // все проверки выполняются до изменения массивов; слияние идет с конца,
+    // поэтому при достаточной емкости точки сдвигаются на месте
+    void addPoints(PointBatch batch) throws InappropriateFunctionPointException {
+        batch.checkAgainst(xs, pointsCount);
+
+        int total = pointsCount + batch.count;
+        double[] newXs = xs;
+        double[] newYs = ys;
+        if (total > xs.length) {
+            newXs = new double[total + 3];
+            newYs = new double[total + 3];
+        }
+
+        int i = pointsCount - 1;
+        int j = batch.count - 1;
+        for (int k = total - 1; j >= 0; k--) {
+            if (i >= 0 && xs[i] > batch.xs[j]) {
+                newXs[k] = xs[i];
+                newYs[k] = ys[i];
+                i--;
+            } else {
+                newXs[k] = batch.xs[j];
+                newYs[k] = batch.ys[j];
+                j--;
+            }
+        }
+        // оставшиеся левее всех новых точек уже на своих местах, если массив не менялся
+        if (newXs != xs) {
+            System.arraycopy(xs, 0, newXs, 0, i + 1);
+            System.arraycopy(ys, 0, newYs, 0, i + 1);
+            xs = newXs;
+            ys = newYs;
+        }
+        pointsCount = total;
+        // новые точки разбросаны по всей сетке, коэффициенты пересчитываются целиком
+        if (bs != null) {
+            if (bs.length < xs.length) {
+                bs = new double[xs.length];
+                cs = new double[xs.length];
+                ds = new double[xs.length];
+            }
+            updateCoefficients(0, pointsCount);
+        }
     }
 }
\ No newline at end of file
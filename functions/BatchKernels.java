@@ -0,0 +1,94 @@
+package functions;
+
+// пакетные ядра для вычисления элементарных ф-ций и линейной интерполяции на массивах точек.
+// сам класс — скалярная реализация, результаты которой совпадают с getFunctionValue.
+// если при запуске доступен модуль jdk.incubator.vector и скомпилирован класс
+// VectorBatchKernels (каталог vector/), используется его векторная реализация.
+// для явных сеток (ArrayTabulatedFunction, LinkedListTabulatedFunction) ядра нет: интервалы
+// там находятся скалярным проходом слиянием, он и определяет время, а сбор концов интервалов
+// в массивы для векторной интерполяции замедлял упорядоченный evaluate
+public class BatchKernels {
+    private static final BatchKernels INSTANCE = load();
+
+    protected BatchKernels() {}
+
+    // возвращает реализацию, выбранную при загрузке класса
+    public static BatchKernels get() {
+        return INSTANCE;
+    }
+
+    // true, если используется векторная реализация
+    public boolean isVectorized() {
+        return false;
+    }
+
+    private static BatchKernels load() {
+        if (Boolean.getBoolean("functions.scalarKernels")) {
+            return new BatchKernels();
+        }
+        try {
+            BatchKernels vector = (BatchKernels) Class.forName("functions.VectorBatchKernels")
+                    .getDeclaredConstructor().newInstance();
+            // пробный вызов: без модуля jdk.incubator.vector он завершится LinkageError
+            vector.sin(new double[16], new double[16], 0, 16);
+            return vector;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new BatchKernels();
+        }
+    }
+
+    public void sin(double[] xs, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = Math.sin(xs[i]);
+        }
+    }
+
+    public void cos(double[] xs, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = Math.cos(xs[i]);
+        }
+    }
+
+    // тангенс с NaN в точках разрыва, как в functions.basic.Tan
+    public void tan(double[] xs, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = tan(xs[i]);
+        }
+    }
+
+    static double tan(double x) {
+        double tan = Math.tan(x);
+        if (Math.abs(tan) > 1e10) {
+            return Double.NaN; // точка разрыва, |cos x| < 1e-10
+        }
+        return tan;
+    }
+
+    public void exp(double[] xs, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = Math.exp(xs[i]);
+        }
+    }
+
+    // логарифм по основанию, натуральный логарифм которого равен lnBase, как в functions.basic.Log
+    public void log(double[] xs, double[] out, int from, int to, double lnBase) {
+        for (int i = from; i < to; i++) {
+            out[i] = log(xs[i], lnBase);
+        }
+    }
+
+    static double log(double x, double lnBase) {
+        if (x <= 0) {
+            return Double.NaN;
+        }
+        return Math.log(x) / lnBase;
+    }
+
+    // линейная интерполяция по значениям ys на равномерной сетке leftX + step * i
+    public void interpolateUniform(double leftX, double step, double[] ys, int pointsCount,
+                                   double[] xs, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = UniformGridTabulatedFunction.valueOnGrid(leftX, step, ys, pointsCount, xs[i]);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package functions;
+
+// параметры кэша для Functions.cached: емкость, политика вытеснения,
+// шаг квантования аргумента и число независимых сегментов
+public class CacheSpec {
+
+    // политика вытеснения
+    public enum Eviction {
+        // вытесняется давно не использованное значение
+        LRU,
+        // приближение LRU: вытесняется первое значение без бита обращения по кругу
+        CLOCK
+    }
+
+    private final int capacity;
+    private final Eviction eviction;
+    private final double quantum;
+    private final int segments;
+
+    private CacheSpec(int capacity, Eviction eviction, double quantum, int segments) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Емкость кэша должна быть положительной");
+        }
+        if (!(quantum >= 0) || Double.isInfinite(quantum)) {
+            throw new IllegalArgumentException("Шаг квантования должен быть неотрицательным числом");
+        }
+        if (segments < 1) {
+            throw new IllegalArgumentException("Число сегментов должно быть положительным");
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        this.quantum = quantum;
+        this.segments = segments;
+    }
+
+    // кэш на capacity значений с вытеснением LRU, без квантования,
+    // с числом сегментов по числу процессоров
+    public static CacheSpec lru(int capacity) {
+        return new CacheSpec(capacity, Eviction.LRU, 0, defaultSegments(capacity));
+    }
+
+    // то же с вытеснением CLOCK
+    public static CacheSpec clock(int capacity) {
+        return new CacheSpec(capacity, Eviction.CLOCK, 0, defaultSegments(capacity));
+    }
+
+    private static int defaultSegments(int capacity) {
+        return Math.min(Runtime.getRuntime().availableProcessors() * 2, capacity);
+    }
+
+    // копия параметров, в которой аргумент округляется до ближайшего кратного quantum;
+    // значение ф-ции тогда вычисляется в округленной точке
+    public CacheSpec quantized(double quantum) {
+        return new CacheSpec(capacity, eviction, quantum, segments);
+    }
+
+    // копия параметров с заданным числом сегментов
+    public CacheSpec segmented(int segments) {
+        return new CacheSpec(capacity, eviction, quantum, Math.min(segments, Math.max(capacity, 1)));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public double getQuantum() {
+        return quantum;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+}
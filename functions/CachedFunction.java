@@ -0,0 +1,257 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// ф-ция, запоминающая вычисленные значения в ограниченном кэше.
+// ключ - биты double аргумента, значения хранятся в массивах примитивов без упаковки.
+// кэш разбит на сегменты с отдельными блокировками, поэтому потоки, обращающиеся
+// к разным аргументам, почти не мешают друг другу. сама ф-ция вычисляется вне блокировки
+public class CachedFunction implements Function {
+    private final Function function;
+    private final double quantum;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CachedFunction(Function function, CacheSpec spec) {
+        this.function = function;
+        this.quantum = spec.getQuantum();
+        this.segments = new Segment[spec.getSegments()];
+        // емкость делится между сегментами точно: первые capacity % segments получают на одно
+        // значение больше, поэтому всего в кэше не больше spec.getCapacity() значений
+        int capacity = spec.getCapacity();
+        for (int i = 0; i < segments.length; i++) {
+            int segmentCapacity = capacity / segments.length + (i < capacity % segments.length ? 1 : 0);
+            segments[i] = spec.getEviction() == CacheSpec.Eviction.LRU
+                    ? new LruSegment(segmentCapacity)
+                    : new ClockSegment(segmentCapacity);
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        double key = quantum > 0 ? Math.rint(x / quantum) * quantum : x;
+        long bits = Double.doubleToLongBits(key);
+        int hash = hash(bits);
+        Segment segment = segments[segmentIndex(hash)];
+
+        synchronized (segment) {
+            int slot = segment.find(bits, hash);
+            if (slot >= 0) {
+                segment.touch(slot);
+                hits.increment();
+                return segment.values[slot];
+            }
+        }
+
+        misses.increment();
+        double value = function.getFunctionValue(key);
+        synchronized (segment) {
+            segment.put(bits, hash, value);
+        }
+        return value;
+    }
+
+    // число обращений, для которых значение нашлось в кэше
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // число обращений, для которых ф-цию пришлось вычислить
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // число значений в кэше
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    private static int hash(long bits) {
+        int h = (int) (bits ^ (bits >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // сегмент выбирается по старшим битам хеша, а корзина внутри сегмента - по младшим;
+    // если брать оба индекса из младших битов, у всех ключей сегмента эти биты совпадают
+    // и используется лишь часть корзин
+    private int segmentIndex(int hash) {
+        return (int) (((hash & 0xFFFFFFFFL) * segments.length) >>> 32);
+    }
+
+    // открытая хеш-таблица на массивах: цепочки слотов связаны индексами в next
+    private abstract static class Segment {
+        final long[] keys;
+        final double[] values;
+        final int[] hashes;
+        final int[] next;
+        final int[] buckets;
+        int size;
+
+        Segment(int capacity) {
+            keys = new long[capacity];
+            values = new double[capacity];
+            hashes = new int[capacity];
+            next = new int[capacity];
+            buckets = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+            Arrays.fill(buckets, -1);
+        }
+
+        int find(long key, int hash) {
+            for (int slot = buckets[hash & (buckets.length - 1)]; slot != -1; slot = next[slot]) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int hash, double value) {
+            // другой поток мог успеть вычислить то же значение
+            int slot = find(key, hash);
+            if (slot >= 0) {
+                values[slot] = value;
+                touch(slot);
+                return;
+            }
+
+            if (size < keys.length) {
+                slot = size++;
+            } else {
+                slot = victim();
+                unlink(slot);
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            hashes[slot] = hash;
+            int bucket = hash & (buckets.length - 1);
+            next[slot] = buckets[bucket];
+            buckets[bucket] = slot;
+            inserted(slot);
+        }
+
+        // убирает слот из цепочки его корзины
+        private void unlink(int slot) {
+            int bucket = hashes[slot] & (buckets.length - 1);
+            if (buckets[bucket] == slot) {
+                buckets[bucket] = next[slot];
+                return;
+            }
+            int previous = buckets[bucket];
+            while (next[previous] != slot) {
+                previous = next[previous];
+            }
+            next[previous] = next[slot];
+        }
+
+        // обращение к значению в слоте
+        abstract void touch(int slot);
+
+        // в слот записано новое значение
+        abstract void inserted(int slot);
+
+        // слот, значение из которого будет вытеснено
+        abstract int victim();
+    }
+
+    // LRU: слоты связаны в двусвязный список от самого нового к самому старому
+    private static final class LruSegment extends Segment {
+        private final int[] older;
+        private final int[] newer;
+        private int newest = -1;
+        private int oldest = -1;
+
+        LruSegment(int capacity) {
+            super(capacity);
+            older = new int[capacity];
+            newer = new int[capacity];
+        }
+
+        void touch(int slot) {
+            if (slot == newest) {
+                return;
+            }
+            remove(slot);
+            pushNewest(slot);
+        }
+
+        void inserted(int slot) {
+            pushNewest(slot);
+        }
+
+        int victim() {
+            int slot = oldest;
+            remove(slot);
+            return slot;
+        }
+
+        private void remove(int slot) {
+            if (newer[slot] != -1) {
+                older[newer[slot]] = older[slot];
+            } else {
+                newest = older[slot];
+            }
+            if (older[slot] != -1) {
+                newer[older[slot]] = newer[slot];
+            } else {
+                oldest = newer[slot];
+            }
+        }
+
+        private void pushNewest(int slot) {
+            older[slot] = newest;
+            newer[slot] = -1;
+            if (newest != -1) {
+                newer[newest] = slot;
+            }
+            newest = slot;
+            if (oldest == -1) {
+                oldest = slot;
+            }
+        }
+    }
+
+    // CLOCK: стрелка идет по кругу и снимает биты обращения,
+    // вытесняется первый слот, у которого бит уже снят
+    private static final class ClockSegment extends Segment {
+        private final boolean[] referenced;
+        private int hand;
+
+        ClockSegment(int capacity) {
+            super(capacity);
+            referenced = new boolean[capacity];
+        }
+
+        void touch(int slot) {
+            referenced[slot] = true;
+        }
+
+        void inserted(int slot) {
+            referenced[slot] = true;
+        }
+
+        int victim() {
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % referenced.length;
+            }
+            int slot = hand;
+            hand = (hand + 1) % referenced.length;
+            return slot;
+        }
+    }
+}
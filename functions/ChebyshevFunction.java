@@ -0,0 +1,210 @@
+package functions;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// кусочное приближение ф-ции рядами Чебышева. отрезок [a, b] делится пополам, пока на
+// каждом куске интерполянт по N + 1 точкам Чебышева, обрезанный до наименьшей степени, при
+// которой сумма модулей отброшенных коэффициентов не больше половины допуска, не отклонится
+// от ф-ции в проверочных точках между узлами тоже не больше чем на половину допуска.
+// запас вдвое покрывает отклонение между проверочными точками. усеченный ряд Чебышева близок
+// к наилучшему равномерному приближению той же степени. значение вычисляется схемой Кленшоу,
+// кусок ищется бинарным поиском. если точность недостижима из-за округлений или особенностей
+// ф-ции, деление останавливается на MAX_SEGMENTS кусках с IllegalArgumentException
+public final class ChebyshevFunction implements Function {
+    // степень интерполянта на куске до усечения
+    private static final int N = 16;
+    // не больше стольких кусков, иначе ф-ция считается неприближаемой с такой точностью
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final double EPSILON = 1e-10;
+    // cos(pi * m / N) для m в [0, 2N)
+    private static final double[] COS = new double[2 * N];
+
+    static {
+        for (int m = 0; m < 2 * N; m++) {
+            COS[m] = Math.cos(Math.PI * m / N);
+        }
+    }
+
+    // границы кусков: кусок i - [breaks[i], breaks[i + 1]]
+    private final double[] breaks;
+    // коэффициенты куска i - coefficients[offsets[i] .. offsets[i + 1])
+    private final double[] coefficients;
+    private final int[] offsets;
+    private final double errorEstimate;
+
+    private ChebyshevFunction(double[] breaks, double[] coefficients, int[] offsets, double errorEstimate) {
+        this.breaks = breaks;
+        this.coefficients = coefficients;
+        this.offsets = offsets;
+        this.errorEstimate = errorEstimate;
+    }
+
+    static ChebyshevFunction approximate(Function f, double a, double b, double tolerance) {
+        if (!(a < b)) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть положительной");
+        }
+        if (a < f.getLeftDomainBorder() || b > f.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Отрезок приближения выходит за область определения ф-ции");
+        }
+
+        double[] breaks = new double[16];
+        double[] coefficients = new double[16 * (N + 1)];
+        int[] offsets = new int[17];
+        int segments = 0;
+        double errorEstimate = 0;
+
+        double[] xs = new double[2 * N + 1];
+        double[] values = new double[2 * N + 1];
+        double[] c = new double[N + 1];
+
+        // куски обрабатываются слева направо: правая половина кладется в стек раньше левой
+        ArrayDeque<double[]> pending = new ArrayDeque<>();
+        pending.push(new double[]{a, b});
+        while (!pending.isEmpty()) {
+            double[] segment = pending.pop();
+            double left = segment[0];
+            double right = segment[1];
+
+            // узлы Чебышева cos(pi j / N) и середины между ними cos(pi (j + 1/2) / N)
+            // вычисляются одним пакетом: четные индексы - узлы, нечетные - проверочные точки
+            double middle = (left + right) / 2;
+            double radius = (right - left) / 2;
+            for (int k = 0; k <= 2 * N; k++) {
+                xs[k] = middle + radius * Math.cos(Math.PI * k / (2 * N));
+            }
+            xs[0] = right;
+            xs[2 * N] = left;
+            f.evaluate(xs, values, 0, 2 * N + 1);
+            for (int k = 0; k <= 2 * N; k++) {
+                if (!Double.isFinite(values[k])) {
+                    throw new IllegalArgumentException("Значение ф-ции в точке " + xs[k] + " не является конечным числом");
+                }
+            }
+
+            interpolate(values, c);
+            int degree = truncate(c, tolerance / 2);
+            double error = tail(c, degree);
+            for (int k = 1; k < 2 * N; k += 2) {
+                double t = (xs[k] - middle) / radius;
+                error = Math.max(error, Math.abs(clenshaw(c, 0, degree + 1, t) - values[k]));
+            }
+
+            if (error > tolerance / 2) {
+                if (segments + pending.size() + 2 > MAX_SEGMENTS || !(left < middle && middle < right)) {
+                    throw new IllegalArgumentException("Не удается приблизить ф-цию с точностью " + tolerance
+                            + " около отрезка [" + left + ", " + right + "]");
+                }
+                pending.push(new double[]{middle, right});
+                pending.push(new double[]{left, middle});
+                continue;
+            }
+
+            // добавляем кусок
+            if (segments + 1 >= breaks.length) {
+                breaks = Arrays.copyOf(breaks, breaks.length * 2);
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            int offset = offsets[segments];
+            if (offset + degree + 1 > coefficients.length) {
+                coefficients = Arrays.copyOf(coefficients, Math.max(coefficients.length * 2, offset + degree + 1));
+            }
+            System.arraycopy(c, 0, coefficients, offset, degree + 1);
+            breaks[segments] = left;
+            breaks[segments + 1] = right;
+            offsets[segments + 1] = offset + degree + 1;
+            segments++;
+            errorEstimate = Math.max(errorEstimate, error);
+        }
+
+        return new ChebyshevFunction(Arrays.copyOf(breaks, segments + 1),
+                Arrays.copyOf(coefficients, offsets[segments]),
+                Arrays.copyOf(offsets, segments + 1), errorEstimate);
+    }
+
+    // коэффициенты интерполянта по значениям в узлах cos(pi j / N), взятым из values[2j]:
+    // c_k = 2/N * sum'' f_j cos(pi j k / N), крайние слагаемые и коэффициенты c_0, c_N - с весом 1/2
+    private static void interpolate(double[] values, double[] c) {
+        for (int k = 0; k <= N; k++) {
+            double sum = (values[0] + (k % 2 == 0 ? values[2 * N] : -values[2 * N])) / 2;
+            for (int j = 1; j < N; j++) {
+                sum += values[2 * j] * COS[(j * k) % (2 * N)];
+            }
+            c[k] = sum * 2 / N;
+        }
+        c[0] /= 2;
+        c[N] /= 2;
+    }
+
+    // наименьшая степень, при которой сумма модулей отброшенных коэффициентов не больше limit
+    private static int truncate(double[] c, double limit) {
+        int degree = N;
+        double dropped = 0;
+        while (degree > 0 && dropped + Math.abs(c[degree]) <= limit) {
+            dropped += Math.abs(c[degree]);
+            degree--;
+        }
+        return degree;
+    }
+
+    private static double tail(double[] c, int degree) {
+        double sum = 0;
+        for (int k = degree + 1; k <= N; k++) {
+            sum += Math.abs(c[k]);
+        }
+        return sum;
+    }
+
+    // сумма c[from] T_0(t) + ... + c[to - 1] T_{to-from-1}(t) по схеме Кленшоу
+    private static double clenshaw(double[] c, int from, int to, double t) {
+        double b1 = 0;
+        double b2 = 0;
+        double t2 = 2 * t;
+        for (int k = to - 1; k > from; k--) {
+            double b0 = c[k] + t2 * b1 - b2;
+            b2 = b1;
+            b1 = b0;
+        }
+        return c[from] + t * b1 - b2;
+    }
+
+    public double getLeftDomainBorder() {
+        return breaks[0];
+    }
+
+    public double getRightDomainBorder() {
+        return breaks[breaks.length - 1];
+    }
+
+    public double getFunctionValue(double x) {
+        int count = breaks.length;
+        if (x < breaks[0] - EPSILON || x > breaks[count - 1] + EPSILON) {
+            return Double.NaN;
+        }
+        int i = TabulatedSearch.binarySearch(breaks, count, x);
+        double left = breaks[i];
+        double right = breaks[i + 1];
+        // вблизи границ отрезка аргумент прижимается к [-1, 1]
+        double t = Math.max(-1, Math.min(1, (2 * x - left - right) / (right - left)));
+        return clenshaw(coefficients, offsets[i], offsets[i + 1], t);
+    }
+
+    // число кусков
+    public int getSegmentsCount() {
+        return breaks.length - 1;
+    }
+
+    // общее число хранимых коэффициентов
+    public int getCoefficientsCount() {
+        return coefficients.length;
+    }
+
+    // наибольшая из оценок погрешности по кускам: сумма отброшенных коэффициентов и
+    // отклонение от ф-ции в проверочных точках между узлами; не больше половины допуска
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+}
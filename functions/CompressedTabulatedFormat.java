@@ -0,0 +1,353 @@
+package functions;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// сжатый двоичный формат табулированной ф-ции.
+// заголовок: MAGIC, версия, флаги, кол-во точек, для равномерной сетки - leftX и rightX.
+// далее блоки по BLOCK_POINTS точек: varint длины блока и сам блок, в котором
+// абсциссы (если сетка неравномерная) записаны varint'ами вторых разностей,
+// а ординаты - XOR-сжатием соседних значений (как в Gorilla). блоки независимы,
+// поэтому ни писателю, ни читателю не нужно держать в памяти все сжатое представление
+final class CompressedTabulatedFormat {
+    private static final int MAGIC = 0x5446435A;
+    private static final int VERSION = 1;
+    private static final int FLAG_UNIFORM = 1;
+    private static final int BLOCK_POINTS = 4096;
+    // верхняя оценка размера блока: 10 байт varint абсциссы и 10 байт ординаты на точку
+    private static final int MAX_BLOCK_BYTES = 20 * BLOCK_POINTS + 16;
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private CompressedTabulatedFormat() {}
+
+    static void write(TabulatedFunction function, OutputStream out, double epsilon) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        int pointsCount = function.getPointsCount();
+        boolean uniform = isUniformGrid(function, epsilon);
+
+        dataOut.writeInt(MAGIC);
+        dataOut.writeByte(VERSION);
+        dataOut.writeByte(uniform ? FLAG_UNIFORM : 0);
+        dataOut.writeInt(pointsCount);
+        if (uniform) {
+            dataOut.writeDouble(function.getPointX(0));
+            dataOut.writeDouble(function.getPointX(pointsCount - 1));
+        }
+
+        BlockWriter block = new BlockWriter();
+        byte[] length = new byte[10];
+        for (int from = 0; from < pointsCount; from += BLOCK_POINTS) {
+            int to = Math.min(pointsCount, from + BLOCK_POINTS);
+            block.reset();
+
+            // абсциссы: вторые разности ключей, сохраняющих порядок double
+            if (!uniform) {
+                long previousKey = 0;
+                long previousDelta = 0;
+                for (int i = from; i < to; i++) {
+                    long key = orderKey(function.getPointX(i));
+                    if (i == from) {
+                        block.writeVarint(zigZag(key));
+                    } else {
+                        long delta = key - previousKey;
+                        block.writeVarint(zigZag(delta - previousDelta));
+                        previousDelta = delta;
+                    }
+                    previousKey = key;
+                }
+            }
+
+            // ординаты: XOR с предыдущим значением
+            long previous = Double.doubleToRawLongBits(function.getPointY(from));
+            block.writeBits(previous, 64);
+            int leading = -1;
+            int trailing = 0;
+            for (int i = from + 1; i < to; i++) {
+                long bits = Double.doubleToRawLongBits(function.getPointY(i));
+                long xor = bits ^ previous;
+                previous = bits;
+                if (xor == 0) {
+                    block.writeBits(0, 1);
+                    continue;
+                }
+                int lead = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trail = Long.numberOfTrailingZeros(xor);
+                if (leading >= 0 && lead >= leading && trail >= trailing) {
+                    // значащие биты помещаются в окно предыдущего значения
+                    block.writeBits(0b10, 2);
+                    block.writeBits(xor >>> trailing, 64 - leading - trailing);
+                } else {
+                    int significant = 64 - lead - trail;
+                    block.writeBits(0b11, 2);
+                    block.writeBits(lead, 5);
+                    // 64 значащих бита кодируются нулем
+                    block.writeBits(significant & 63, 6);
+                    block.writeBits(xor >>> trail, significant);
+                    leading = lead;
+                    trailing = trail;
+                }
+            }
+            block.finish();
+
+            int lengthBytes = putVarint(length, 0, block.size);
+            dataOut.write(length, 0, lengthBytes);
+            dataOut.write(block.bytes, 0, block.size);
+        }
+
+        dataOut.flush();
+    }
+
+    static TabulatedFunction read(InputStream in, double epsilon) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != MAGIC) {
+            throw new IOException("поток не содержит сжатую табулированную ф-цию");
+        }
+        int version = dataIn.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("неподдерживаемая версия формата: " + version);
+        }
+        boolean uniform = (dataIn.readUnsignedByte() & FLAG_UNIFORM) != 0;
+        int pointsCount = dataIn.readInt();
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        double leftX = 0;
+        double rightX = 0;
+        if (uniform) {
+            leftX = dataIn.readDouble();
+            rightX = dataIn.readDouble();
+            if (leftX >= rightX - epsilon) {
+                throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+            }
+        }
+
+        double[] xs = uniform ? null : new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        BlockReader block = new BlockReader();
+        for (int from = 0; from < pointsCount; from += BLOCK_POINTS) {
+            int to = Math.min(pointsCount, from + BLOCK_POINTS);
+            block.load(dataIn);
+
+            if (!uniform) {
+                long key = 0;
+                long delta = 0;
+                for (int i = from; i < to; i++) {
+                    if (i == from) {
+                        key = unZigZag(block.readVarint());
+                    } else {
+                        delta += unZigZag(block.readVarint());
+                        key += delta;
+                    }
+                    xs[i] = fromOrderKey(key);
+                }
+            }
+
+            long previous = block.readBits(64);
+            ys[from] = Double.longBitsToDouble(previous);
+            int leading = 0;
+            int trailing = 0;
+            for (int i = from + 1; i < to; i++) {
+                if (block.readBits(1) != 0) {
+                    if (block.readBits(1) != 0) {
+                        leading = (int) block.readBits(5);
+                        int significant = (int) block.readBits(6);
+                        if (significant == 0) {
+                            significant = 64;
+                        }
+                        trailing = 64 - leading - significant;
+                        if (trailing < 0) {
+                            throw new IOException("поврежден блок сжатых данных");
+                        }
+                    }
+                    previous ^= block.readBits(64 - leading - trailing) << trailing;
+                }
+                ys[i] = Double.longBitsToDouble(previous);
+            }
+            block.checkConsumed();
+        }
+
+        if (uniform) {
+            return UniformGridTabulatedFunction.ofValues(leftX, rightX, ys);
+        }
+        for (int i = 0; i < pointsCount - 1; i++) {
+            if (xs[i] >= xs[i + 1] - epsilon) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        return new ArrayTabulatedFunction(xs, ys, pointsCount);
+    }
+
+    // true, если абсциссы в точности совпадают с теми, что построит ofValues по крайним точкам
+    private static boolean isUniformGrid(TabulatedFunction function, double epsilon) {
+        int pointsCount = function.getPointsCount();
+        if (pointsCount < 2) {
+            return false;
+        }
+        double leftX = function.getPointX(0);
+        double rightX = function.getPointX(pointsCount - 1);
+        if (leftX >= rightX - epsilon) {
+            return false;
+        }
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            if (function.getPointX(i) != leftX + step * i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ключ, монотонный вместе с double: для возрастающих абсцисс разности положительны и малы
+    private static long orderKey(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double fromOrderKey(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // записывает value в target с позиции offset, возвращает новую позицию
+    private static int putVarint(byte[] target, int offset, long value) {
+        int size = offset;
+        while ((value & ~0x7FL) != 0) {
+            target[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[size++] = (byte) value;
+        return size;
+    }
+
+    // накопитель одного блока: сначала байтовые varint'ы, затем битовый поток
+    private static final class BlockWriter {
+        byte[] bytes = new byte[MAX_BLOCK_BYTES];
+        int size;
+        private long accumulator;
+        private int used;
+
+        void reset() {
+            size = 0;
+            accumulator = 0;
+            used = 0;
+        }
+
+        void writeVarint(long value) {
+            size = putVarint(bytes, size, value);
+        }
+
+        // младшие n бит value, начиная со старшего
+        void writeBits(long value, int n) {
+            if (n < 64) {
+                value &= (1L << n) - 1;
+            }
+            int free = 64 - used;
+            if (n < free) {
+                accumulator |= value << (free - n);
+                used += n;
+            } else {
+                int rest = n - free;
+                accumulator |= value >>> rest;
+                flushWord();
+                accumulator = rest == 0 ? 0 : value << (64 - rest);
+                used = rest;
+            }
+        }
+
+        void finish() {
+            for (int shift = 56; used > 0; shift -= 8, used -= 8) {
+                bytes[size++] = (byte) (accumulator >>> shift);
+            }
+            used = 0;
+        }
+
+        private void flushWord() {
+            LONG_BE.set(bytes, size, accumulator);
+            size += Long.BYTES;
+        }
+    }
+
+    // чтение одного блока; массив с запасом в 8 байт, чтобы читать словами у конца блока
+    private static final class BlockReader {
+        private byte[] bytes = new byte[MAX_BLOCK_BYTES + Long.BYTES];
+        private int length;
+        private int position;
+        private long bitPosition;
+
+        void load(DataInputStream in) throws IOException {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.readUnsignedByte();
+                if (shift > 28) {
+                    throw new IOException("поврежден блок сжатых данных");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (value > MAX_BLOCK_BYTES) {
+                throw new IOException("поврежден блок сжатых данных");
+            }
+            length = (int) value;
+            in.readFully(bytes, 0, length);
+            Arrays.fill(bytes, length, length + Long.BYTES, (byte) 0);
+            position = 0;
+            bitPosition = -1;
+        }
+
+        long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= length) {
+                    throw new IOException("поврежден блок сжатых данных");
+                }
+                int b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("поврежден блок сжатых данных");
+        }
+
+        long readBits(int n) throws IOException {
+            if (bitPosition < 0) {
+                // битовый поток начинается сразу после varint'ов
+                bitPosition = (long) position * 8;
+            }
+            if (n > 32) {
+                long high = readBits(n - 32);
+                return (high << 32) | readBits(32);
+            }
+            int index = (int) (bitPosition >>> 3);
+            if (index >= length) {
+                throw new IOException("поврежден блок сжатых данных");
+            }
+            long word = (long) LONG_BE.get(bytes, index);
+            long result = (word << (bitPosition & 7)) >>> (64 - n);
+            bitPosition += n;
+            return result;
+        }
+
+        void checkConsumed() throws IOException {
+            if (bitPosition > (long) length * 8) {
+                throw new IOException("поврежден блок сжатых данных");
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+// потокобезопасная табулированная ф-ция для сценария "много читателей, редкие изменения".
+// точки хранятся в ArrayTabulatedFunction; читатели работают без блокировки, в режиме
+// оптимистичного чтения StampedLock, и повторяют чтение под блокировкой чтения, только если
+// за это время была запись. все изменения выполняются под блокировкой записи.
+// режим интерполяции исходной ф-ции сохраняется
+public class ConcurrentTabulatedFunction implements TabulatedFunction {
+    private final ArrayTabulatedFunction target;
+    private final StampedLock lock = new StampedLock();
+
+    // копирует точки и режим интерполяции исходной ф-ции
+    public ConcurrentTabulatedFunction(TabulatedFunction source) {
+        Interpolation interpolation = Interpolation.of(source);
+        int count = source.getPointsCount();
+        double[] xs = new double[count + 3];
+        double[] ys = new double[count + 3];
+        for (int i = 0; i < count; i++) {
+            xs[i] = source.getPointX(i);
+            ys[i] = source.getPointY(i);
+        }
+        target = new ArrayTabulatedFunction(xs, ys, count);
+        if (interpolation != Interpolation.LINEAR) {
+            target.setInterpolation(interpolation);
+        }
+    }
+
+    public Interpolation getInterpolation() {
+        long stamp = lock.tryOptimisticRead();
+        Interpolation interpolation = target.getInterpolation();
+        if (lock.validate(stamp)) {
+            return interpolation;
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getInterpolation();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void setInterpolation(Interpolation interpolation) {
+        long stamp = lock.writeLock();
+        try {
+            target.setInterpolation(interpolation);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // интеграл по [a, b] считается по снимку точек: отдельные обращения к точкам во время
+    // записи дали бы смесь версий ф-ции, а проход под блокировкой чтения задерживал бы запись
+    double integrate(double a, double b) {
+        return Integrator.tabulated(snapshot(), a, b);
+    }
+
+    // интеграл по всей области определения снимка
+    double integrate() {
+        ArrayTabulatedFunction snapshot = snapshot();
+        return Integrator.tabulated(snapshot, snapshot.getLeftDomainBorder(), snapshot.getRightDomainBorder());
+    }
+
+    // согласованная копия точек и режима интерполяции. при гонке с записью копия может быть
+    // несогласованной, но не выходит за границы массивов; тогда она снимается под блокировкой
+    private ArrayTabulatedFunction snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        Interpolation interpolation = target.getInterpolation();
+        double[] xs = target.xsArray();
+        double[] ys = target.ysArray();
+        int count = Math.min(target.getPointsCount(), Math.min(xs.length, ys.length));
+        xs = Arrays.copyOf(xs, count);
+        ys = Arrays.copyOf(ys, count);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                interpolation = target.getInterpolation();
+                count = target.getPointsCount();
+                xs = Arrays.copyOf(target.xsArray(), count);
+                ys = Arrays.copyOf(target.ysArray(), count);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        ArrayTabulatedFunction snapshot = new ArrayTabulatedFunction(xs, ys, count);
+        if (interpolation != Interpolation.LINEAR) {
+            snapshot.setInterpolation(interpolation);
+        }
+        return snapshot;
+    }
+
+    public double getLeftDomainBorder() {
+        long stamp = lock.tryOptimisticRead();
+        double border = target.xsArray()[0];
+        if (lock.validate(stamp)) {
+            return border;
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getLeftDomainBorder();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getRightDomainBorder() {
+        long stamp = lock.tryOptimisticRead();
+        double[] xs = target.xsArray();
+        int count = Math.min(target.getPointsCount(), xs.length);
+        double border = xs[count - 1];
+        if (lock.validate(stamp)) {
+            return border;
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getRightDomainBorder();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getFunctionValue(double x) {
+        // при гонке с записью массивы и кол-во точек могут быть несогласованы, а массивы
+        // коэффициентов - частично заменены сменой режима, поэтому границы берутся по минимуму
+        // длин, а результат отбрасывается, если проверка не прошла
+        long stamp = lock.tryOptimisticRead();
+        double[] xs = target.xsArray();
+        double[] ys = target.ysArray();
+        double[] bs = target.slopes();
+        double[] cs = target.csArray();
+        double[] ds = target.dsArray();
+        int count = Math.min(target.getPointsCount(), Math.min(xs.length, ys.length));
+        if (bs != null && cs != null && ds != null) {
+            count = Math.min(count, Math.min(bs.length, Math.min(cs.length, ds.length)));
+        }
+        double value = ArrayTabulatedFunction.valueAt(xs, ys, bs, cs, ds, count, x);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getFunctionValue(x);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // выходной массив может совпадать с входным, поэтому оптимистичный проход
+    // повторить нельзя; блокировка чтения берется один раз на весь набор
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        long stamp = lock.readLock();
+        try {
+            target.evaluate(xs, out, from, to);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getPointsCount() {
+        long stamp = lock.tryOptimisticRead();
+        int count = target.getPointsCount();
+        if (lock.validate(stamp)) {
+            return count;
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getPointsCount();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        long stamp = lock.tryOptimisticRead();
+        double[] xs = target.xsArray();
+        double[] ys = target.ysArray();
+        int count = target.getPointsCount();
+        if (index >= 0 && index < Math.min(count, Math.min(xs.length, ys.length))) {
+            double x = xs[index];
+            double y = ys[index];
+            if (lock.validate(stamp)) {
+                return new FunctionPoint(x, y);
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getPoint(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        long stamp = lock.tryOptimisticRead();
+        double[] xs = target.xsArray();
+        int count = target.getPointsCount();
+        if (index >= 0 && index < Math.min(count, xs.length)) {
+            double x = xs[index];
+            if (lock.validate(stamp)) {
+                return x;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getPointX(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        long stamp = lock.tryOptimisticRead();
+        double[] ys = target.ysArray();
+        int count = target.getPointsCount();
+        if (index >= 0 && index < Math.min(count, ys.length)) {
+            double y = ys[index];
+            if (lock.validate(stamp)) {
+                return y;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return target.getPointY(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            target.setPoint(index, point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            target.setPointX(index, x);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // запись double не атомарна для гонок, поэтому и замена одного значения идет под блокировкой
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        long stamp = lock.writeLock();
+        try {
+            target.setPointY(index, y);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        long stamp = lock.writeLock();
+        try {
+            target.deletePoint(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = lock.writeLock();
+        try {
+            target.addPoint(point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        // набор готовится вне блокировки, под ней выполняется только слияние
+        PointBatch batch = PointBatch.of(points);
+        long stamp = lock.writeLock();
+        try {
+            target.addPoints(batch);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        long stamp = lock.writeLock();
+        try {
+            target.addPoints(batch);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package functions;
+
+// кубическая интерполяция табулированных ф-ций. на интервале [xs[i], xs[i + 1]]
+// значение равно ys[i] + s * (bs[i] + s * (cs[i] + s * ds[i])), s = x - xs[i], где bs[i] -
+// производная в точке i, а cs[i] и ds[i] выражаются через производные на концах интервала.
+// режимы отличаются только выбором производных; у AKIMA и MONOTONE производная в точке
+// зависит от точек не дальше двух индексов, поэтому изменение точки пересчитывается локально
+final class CubicInterpolation {
+    // после изменения точки index пересчитываются производные в точках [index - REACH, index + REACH]
+    static final int REACH = 3;
+
+    private CubicInterpolation() {}
+
+    // производные в точках [from, to) по первым count точкам массивов; края массива
+    // считаются краями ф-ции. естественный сплайн всегда решается целиком, массив
+    // scratch длины не менее count используется как рабочий
+    static void slopes(Interpolation mode, double[] xs, double[] ys, int count, double[] bs, double[] scratch, int from, int to) {
+        if (count == 2) {
+            // по двум точкам все режимы дают прямую
+            bs[0] = bs[1] = (ys[1] - ys[0]) / (xs[1] - xs[0]);
+            return;
+        }
+        switch (mode) {
+            case NATURAL_SPLINE:
+                naturalSpline(xs, ys, count, bs, scratch);
+                break;
+            case AKIMA:
+                for (int j = from; j < to; j++) {
+                    bs[j] = akima(xs, ys, count, j);
+                }
+                break;
+            case MONOTONE:
+                for (int j = from; j < to; j++) {
+                    bs[j] = monotone(xs, ys, count, j);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Режим " + mode + " не является кубическим");
+        }
+    }
+
+    // коэффициенты многочленов на интервалах [from, to) по производным bs
+    static void coefficients(double[] xs, double[] ys, double[] bs, double[] cs, double[] ds, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double h = xs[i + 1] - xs[i];
+            double delta = (ys[i + 1] - ys[i]) / h;
+            cs[i] = (3 * delta - 2 * bs[i] - bs[i + 1]) / h;
+            ds[i] = (bs[i] + bs[i + 1] - 2 * delta) / (h * h);
+        }
+    }
+
+    // значение в точке x интервала [xs[i], xs[i + 1]]; в узлах, как и при линейной
+    // интерполяции, возвращается табличное значение
+    static double value(double[] xs, double[] ys, double[] bs, double[] cs, double[] ds, int i, double x, double epsilon) {
+        double s = x - xs[i];
+        if (Math.abs(s) < epsilon) {
+            return ys[i];
+        }
+        if (Math.abs(xs[i + 1] - x) < epsilon) {
+            return ys[i + 1];
+        }
+        return ys[i] + s * (bs[i] + s * (cs[i] + s * ds[i]));
+    }
+
+    // трехдиагональная система для производных естественного сплайна решается прогонкой
+    private static void naturalSpline(double[] xs, double[] ys, int count, double[] bs, double[] upper) {
+        // первая строка: 2 b0 + b1 = 3 delta0
+        upper[0] = 0.5;
+        bs[0] = 1.5 * slope(xs, ys, 0);
+        for (int i = 1; i < count - 1; i++) {
+            double hPrev = xs[i] - xs[i - 1];
+            double h = xs[i + 1] - xs[i];
+            double rhs = 3 * (h * slope(xs, ys, i - 1) + hPrev * slope(xs, ys, i));
+            double pivot = 2 * (hPrev + h) - h * upper[i - 1];
+            upper[i] = hPrev / pivot;
+            bs[i] = (rhs - h * bs[i - 1]) / pivot;
+        }
+        // последняя строка: b[n-2] + 2 b[n-1] = 3 delta[n-2]
+        int last = count - 1;
+        bs[last] = (3 * slope(xs, ys, last - 1) - bs[last - 1]) / (2 - upper[last - 1]);
+        for (int i = last - 1; i >= 0; i--) {
+            bs[i] -= upper[i] * bs[i + 1];
+        }
+    }
+
+    // производная по Акиме: среднее наклонов соседних интервалов с весами по разности
+    // наклонов с другой стороны; за краями наклоны продолжаются линейно
+    private static double akima(double[] xs, double[] ys, int count, int j) {
+        double m2 = akimaSlope(xs, ys, count, j - 2);
+        double m1 = akimaSlope(xs, ys, count, j - 1);
+        double m0 = akimaSlope(xs, ys, count, j);
+        double p1 = akimaSlope(xs, ys, count, j + 1);
+        double w1 = Math.abs(p1 - m0);
+        double w2 = Math.abs(m1 - m2);
+        if (w1 + w2 == 0) {
+            return (m1 + m0) / 2;
+        }
+        return (w1 * m1 + w2 * m0) / (w1 + w2);
+    }
+
+    private static double akimaSlope(double[] xs, double[] ys, int count, int k) {
+        if (k < 0) {
+            // m[-1] = 2 m0 - m1, m[-2] = 2 m[-1] - m0
+            double m0 = slope(xs, ys, 0);
+            double m1 = slope(xs, ys, 1);
+            return k == -1 ? 2 * m0 - m1 : 3 * m0 - 2 * m1;
+        }
+        if (k > count - 2) {
+            double m0 = slope(xs, ys, count - 2);
+            double m1 = slope(xs, ys, count - 3);
+            return k == count - 1 ? 2 * m0 - m1 : 3 * m0 - 2 * m1;
+        }
+        return slope(xs, ys, k);
+    }
+
+    // производная Фрича-Карлсона: взвешенное гармоническое среднее наклонов соседних
+    // интервалов и ноль в локальных экстремумах данных; на краях - трехточечная оценка,
+    // ограниченная так, чтобы сохранить монотонность
+    private static double monotone(double[] xs, double[] ys, int count, int j) {
+        if (j == 0) {
+            return monotoneEnd(xs[1] - xs[0], xs[2] - xs[1], slope(xs, ys, 0), slope(xs, ys, 1));
+        }
+        if (j == count - 1) {
+            return monotoneEnd(xs[j] - xs[j - 1], xs[j - 1] - xs[j - 2], slope(xs, ys, j - 1), slope(xs, ys, j - 2));
+        }
+        double left = slope(xs, ys, j - 1);
+        double right = slope(xs, ys, j);
+        if (left * right <= 0) {
+            return 0;
+        }
+        double hLeft = xs[j] - xs[j - 1];
+        double hRight = xs[j + 1] - xs[j];
+        double w1 = 2 * hRight + hLeft;
+        double w2 = hRight + 2 * hLeft;
+        return (w1 + w2) / (w1 / left + w2 / right);
+    }
+
+    private static double monotoneEnd(double h0, double h1, double delta0, double delta1) {
+        double d = ((2 * h0 + h1) * delta0 - h0 * delta1) / (h0 + h1);
+        if (Math.signum(d) != Math.signum(delta0)) {
+            return 0;
+        }
+        if (Math.signum(delta0) != Math.signum(delta1) && Math.abs(d) > Math.abs(3 * delta0)) {
+            return 3 * delta0;
+        }
+        return d;
+    }
+
+    // наклон интервала [xs[k], xs[k + 1]]
+    private static double slope(double[] xs, double[] ys, int k) {
+        return (ys[k + 1] - ys[k]) / (xs[k + 1] - xs[k]);
+    }
+}
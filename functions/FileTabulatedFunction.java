@@ -0,0 +1,240 @@
+package functions;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// табулированная ф-ция только для чтения, хранящаяся в файле в формате outputTabulatedFunction.
+// точки подгружаются блоками по CHUNK_POINTS по мере обращения, в памяти держатся
+// несколько последних блоков и разреженный индекс абсцисс на границах блоков,
+// поэтому расход кучи растет с числом блоков, а не точек
+public class FileTabulatedFunction implements TabulatedFunction, Closeable {
+    private static final int CHUNK_POINTS = 1 << 16;
+    private static final int DEFAULT_CACHED_CHUNKS = 8;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int POINT_BYTES = 2 * Double.BYTES;
+    private static final double EPSILON = 1e-10;
+
+    private final FileChannel channel;
+    private final int pointsCount;
+    private final int chunksCount;
+    // bounds[c] - абсцисса первой точки блока c, bounds[chunksCount] - последней точки ф-ции
+    private final double[] bounds;
+
+    // кэш блоков; used - время последнего обращения для вытеснения давно не использованного
+    private final Chunk[] cache;
+    private final long[] used;
+    private long clock;
+    private final ByteBuffer buffer;
+
+    public FileTabulatedFunction(Path file) throws IOException {
+        this(file, DEFAULT_CACHED_CHUNKS);
+    }
+
+    public FileTabulatedFunction(Path file, int cachedChunks) throws IOException {
+        if (cachedChunks < 1) {
+            throw new IllegalArgumentException("размер кэша должен быть положительным");
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(header, 0);
+            pointsCount = header.getInt(0);
+            if (pointsCount < 2) {
+                throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+            }
+            if (channel.size() < HEADER_BYTES + (long) pointsCount * POINT_BYTES) {
+                throw new EOFException("файл короче, чем указано в заголовке");
+            }
+
+            chunksCount = (pointsCount - 2) / CHUNK_POINTS + 1;
+            bounds = new double[chunksCount + 1];
+            ByteBuffer x = ByteBuffer.allocate(Double.BYTES);
+            for (int c = 0; c <= chunksCount; c++) {
+                int index = c == chunksCount ? pointsCount - 1 : c * CHUNK_POINTS;
+                x.clear();
+                readFully(x, offset(index));
+                bounds[c] = x.getDouble(0);
+                if (c > 0 && bounds[c - 1] >= bounds[c] - EPSILON) {
+                    throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+                }
+            }
+
+            cache = new Chunk[Math.min(cachedChunks, chunksCount)];
+            used = new long[cache.length];
+            buffer = ByteBuffer.allocateDirect((CHUNK_POINTS + 1) * POINT_BYTES);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public double getLeftDomainBorder() {
+        return bounds[0];
+    }
+
+    public double getRightDomainBorder() {
+        return bounds[chunksCount];
+    }
+
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        // по индексу находим блок, внутри блока - интервал
+        Chunk chunk = chunk(TabulatedSearch.binarySearch(bounds, chunksCount + 1, x));
+        int i = TabulatedSearch.binarySearch(chunk.xs, chunk.xs.length, x);
+        double x1 = chunk.xs[i];
+        double x2 = chunk.xs[i + 1];
+        if (Math.abs(x1 - x) < EPSILON) {
+            return chunk.ys[i];
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return chunk.ys[i + 1];
+        }
+
+        double y1 = chunk.ys[i];
+        double y2 = chunk.ys[i + 1];
+        return ((x - x1) * (y2 - y1)) / (x2 - x1) + y1;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        Chunk chunk = chunkOf(index);
+        return new FunctionPoint(chunk.xs[index - chunk.first], chunk.ys[index - chunk.first]);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        Chunk chunk = chunkOf(index);
+        return chunk.xs[index - chunk.first];
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        Chunk chunk = chunkOf(index);
+        return chunk.ys[index - chunk.first];
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw readOnly();
+    }
+
+    public void setPointX(int index, double x) {
+        throw readOnly();
+    }
+
+    public void setPointY(int index, double y) {
+        throw readOnly();
+    }
+
+    public void deletePoint(int index) {
+        throw readOnly();
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw readOnly();
+    }
+
+    public void addPoints(FunctionPoint[] points) {
+        throw readOnly();
+    }
+
+    public void addPoints(double[] xs, double[] ys) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("табулированная ф-ция из файла доступна только для чтения");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
+        }
+    }
+
+    // блок, содержащий точку; последняя точка ф-ции может быть только хвостом предыдущего блока
+    private Chunk chunkOf(int index) {
+        return chunk(Math.min(index / CHUNK_POINTS, chunksCount - 1));
+    }
+
+    // блок с номером c из кэша или из файла; блок хранит и первую точку следующего блока,
+    // чтобы интервал на стыке блоков находился без второго обращения
+    private synchronized Chunk chunk(int c) {
+        int victim = 0;
+        for (int slot = 0; slot < cache.length; slot++) {
+            Chunk cached = cache[slot];
+            if (cached != null && cached.index == c) {
+                used[slot] = ++clock;
+                return cached;
+            }
+            if (used[slot] < used[victim]) {
+                victim = slot;
+            }
+        }
+
+        int first = c * CHUNK_POINTS;
+        int count = Math.min(pointsCount - first, CHUNK_POINTS + 1);
+        Chunk chunk = new Chunk(c, first, count);
+        try {
+            buffer.clear();
+            buffer.limit(count * POINT_BYTES);
+            readFully(buffer, offset(first));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        DoubleBuffer doubles = buffer.flip().asDoubleBuffer();
+        for (int k = 0; k < count; k++) {
+            chunk.xs[k] = doubles.get(2 * k);
+            chunk.ys[k] = doubles.get(2 * k + 1);
+        }
+
+        cache[victim] = chunk;
+        used[victim] = ++clock;
+        return chunk;
+    }
+
+    private static long offset(int index) {
+        return HEADER_BYTES + (long) index * POINT_BYTES;
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("неожиданный конец данных табулированной ф-ции");
+            }
+            position += read;
+        }
+    }
+
+    private static final class Chunk {
+        final int index;
+        final int first;
+        final double[] xs;
+        final double[] ys;
+
+        Chunk(int index, int first, int count) {
+            this.index = index;
+            this.first = first;
+            xs = new double[count];
+            ys = new double[count];
+        }
+    }
+}
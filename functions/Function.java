@@ -9,4 +9,12 @@ public interface Function {
 
     // возвращает значение ф-ции в заданной точке
     double getFunctionValue(double x);
+
+    // вычисляет значения ф-ции в точках xs[from..to) и записывает их в out[from..to),
+    // out может совпадать с xs
+    default void evaluate(double[] xs, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// компилирует дерево ф-ций из functions.meta и functions.basic в одну цепочку MethodHandle.
+// JIT компилирует такую цепочку как единое целое, без виртуальных вызовов между узлами.
+// узлы распознаются только по точному классу, любые другие ф-ции (табулированные,
+// наследники базовых классов) вызываются через getFunctionValue объекта, привязанного к цепочке
+final class FunctionCompiler {
+    private static final MethodType UNARY = MethodType.methodType(double.class, double.class);
+    private static final MethodType BINARY = MethodType.methodType(double.class, double.class, double.class);
+
+    private static final MethodHandle SIN;
+    private static final MethodHandle COS;
+    private static final MethodHandle TAN;
+    private static final MethodHandle EXP;
+    private static final MethodHandle LOG;
+    private static final MethodHandle POW;
+    private static final MethodHandle ADD;
+    private static final MethodHandle SUB;
+    private static final MethodHandle MUL;
+    private static final MethodHandle DIV;
+    private static final MethodHandle LINEAR;
+    private static final MethodHandle GET_VALUE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SIN = lookup.findStatic(Math.class, "sin", UNARY);
+            COS = lookup.findStatic(Math.class, "cos", UNARY);
+            EXP = lookup.findStatic(Math.class, "exp", UNARY);
+            POW = lookup.findStatic(Math.class, "pow", BINARY);
+            TAN = lookup.findStatic(BatchKernels.class, "tan", UNARY);
+            LOG = lookup.findStatic(BatchKernels.class, "log", BINARY);
+            ADD = lookup.findStatic(FunctionCompiler.class, "add", BINARY);
+            SUB = lookup.findStatic(FunctionCompiler.class, "sub", BINARY);
+            MUL = lookup.findStatic(FunctionCompiler.class, "mul", BINARY);
+            DIV = lookup.findStatic(FunctionCompiler.class, "div", BINARY);
+            LINEAR = lookup.findStatic(FunctionCompiler.class, "linear",
+                    MethodType.methodType(double.class, double.class, double.class, double.class));
+            GET_VALUE = lookup.findVirtual(Function.class, "getFunctionValue", UNARY);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FunctionCompiler() {}
+
+    private static double add(double a, double b) {
+        return a + b;
+    }
+
+    private static double sub(double a, double b) {
+        return a - b;
+    }
+
+    private static double mul(double a, double b) {
+        return a * b;
+    }
+
+    private static double div(double a, double b) {
+        return a / b;
+    }
+
+    private static double linear(double x, double k, double b) {
+        return k * x + b;
+    }
+
+    static Function compile(Function f) {
+        if (f instanceof CompiledFunction) {
+            return f;
+        }
+        return new CompiledFunction(f, toHandle(f));
+    }
+
+    // строит цепочку (double)double, повторяющую порядок операций getFunctionValue
+    private static MethodHandle toHandle(Function f) {
+        Class<?> type = f.getClass();
+        if (type == Sin.class) {
+            return SIN;
+        }
+        if (type == Cos.class) {
+            return COS;
+        }
+        if (type == Tan.class) {
+            return TAN;
+        }
+        if (type == Exp.class) {
+            return EXP;
+        }
+        if (type == Log.class) {
+            return MethodHandles.insertArguments(LOG, 1, Math.log(((Log) f).getBase()));
+        }
+        if (type == Sum.class) {
+            Sum sum = (Sum) f;
+            return both(ADD, toHandle(sum.getF1()), toHandle(sum.getF2()));
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) f;
+            return both(MUL, toHandle(mult.getF1()), toHandle(mult.getF2()));
+        }
+        if (type == Power.class) {
+            Power power = (Power) f;
+            return MethodHandles.filterReturnValue(toHandle(power.getFunction()),
+                    MethodHandles.insertArguments(POW, 1, power.getPower()));
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) f;
+            return affine(toHandle(shift.getFunction()), SUB, shift.getShiftX(), ADD, shift.getShiftY());
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) f;
+            return affine(toHandle(scale.getFunction()), DIV, scale.getScaleX(), MUL, scale.getScaleY());
+        }
+        if (type == Affine.class) {
+            Affine affine = (Affine) f;
+            MethodHandle argument = MethodHandles.insertArguments(LINEAR, 1, affine.getScaleX(), affine.getShiftX());
+            MethodHandle result = MethodHandles.insertArguments(LINEAR, 1, affine.getScaleY(), affine.getShiftY());
+            return MethodHandles.filterReturnValue(
+                    MethodHandles.filterArguments(toHandle(affine.getFunction()), 0, argument), result);
+        }
+        if (type == NarySum.class) {
+            NarySum sum = (NarySum) f;
+            return fold(ADD, sum.getFunctions(), sum.getConstant());
+        }
+        if (type == NaryMult.class) {
+            NaryMult mult = (NaryMult) f;
+            return fold(MUL, mult.getFunctions(), mult.getConstant());
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) f;
+            return MethodHandles.filterReturnValue(toHandle(composition.getF1()), toHandle(composition.getF2()));
+        }
+        return GET_VALUE.bindTo(f);
+    }
+
+    // op(h1(x), h2(x))
+    private static MethodHandle both(MethodHandle op, MethodHandle h1, MethodHandle h2) {
+        MethodHandle combined = MethodHandles.filterArguments(op, 0, h1, h2);
+        return MethodHandles.permuteArguments(combined, UNARY, 0, 0);
+    }
+
+    // op(...op(op(f0(x), f1(x)), f2(x))..., constant), как в NarySum и NaryMult
+    private static MethodHandle fold(MethodHandle op, Function[] functions, double constant) {
+        MethodHandle h = toHandle(functions[0]);
+        for (int i = 1; i < functions.length; i++) {
+            h = both(op, h, toHandle(functions[i]));
+        }
+        return MethodHandles.filterReturnValue(h, MethodHandles.insertArguments(op, 1, constant));
+    }
+
+    // outOp(h(inOp(x, inArg)), outArg)
+    private static MethodHandle affine(MethodHandle h, MethodHandle inOp, double inArg, MethodHandle outOp, double outArg) {
+        MethodHandle argument = MethodHandles.insertArguments(inOp, 1, inArg);
+        MethodHandle result = MethodHandles.insertArguments(outOp, 1, outArg);
+        return MethodHandles.filterReturnValue(MethodHandles.filterArguments(h, 0, argument), result);
+    }
+
+    // скомпилированная ф-ция; область определения берется у исходного дерева,
+    // так как границы табулированных ф-ций могут меняться
+    private static final class CompiledFunction implements Function {
+        private final Function source;
+        private final MethodHandle handle;
+
+        CompiledFunction(Function source, MethodHandle handle) {
+            this.source = source;
+            this.handle = handle;
+        }
+
+        public double getLeftDomainBorder() {
+            return source.getLeftDomainBorder();
+        }
+
+        public double getRightDomainBorder() {
+            return source.getRightDomainBorder();
+        }
+
+        public double getFunctionValue(double x) {
+            try {
+                return (double) handle.invokeExact(x);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
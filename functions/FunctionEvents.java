@@ -0,0 +1,100 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// события JFR для табулирования, ввода-вывода и сериализации табулированных ф-ций.
+// пока запись JFR не включена, commit ничего не делает и обходится почти бесплатно
+final class FunctionEvents {
+
+    private FunctionEvents() {}
+
+    @Name("functions.Tabulate")
+    @Label("Tabulate")
+    @Category({"Functions", "Tabulation"})
+    @Description("Табулирование ф-ции")
+    static final class Tabulate extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("Function")
+        String function;
+
+        @Label("Points")
+        int pointsCount;
+
+        @Label("Left X")
+        double leftX;
+
+        @Label("Right X")
+        double rightX;
+
+        Tabulate(String method, Function function, double leftX, double rightX) {
+            this.method = method;
+            this.function = function.getClass().getName();
+            this.leftX = leftX;
+            this.rightX = rightX;
+        }
+
+        // pointsCount известен только по окончании, например у адаптивного табулирования
+        void end(int pointsCount) {
+            if (shouldCommit()) {
+                this.pointsCount = pointsCount;
+                commit();
+            }
+        }
+    }
+
+    @Name("functions.TabulatedIo")
+    @Label("Tabulated Function I/O")
+    @Category({"Functions", "I/O"})
+    @Description("Чтение или запись табулированной ф-ции методами TabulatedFunctions")
+    static final class TabulatedIo extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Points")
+        int pointsCount;
+
+        TabulatedIo(String operation) {
+            this.operation = operation;
+        }
+
+        void end(int pointsCount) {
+            if (shouldCommit()) {
+                this.pointsCount = pointsCount;
+                commit();
+            }
+        }
+    }
+
+    @Name("functions.Serialization")
+    @Label("Tabulated Function Serialization")
+    @Category({"Functions", "I/O"})
+    @Description("Сериализация или восстановление табулированной ф-ции")
+    static final class Serialization extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Class")
+        Class<?> type;
+
+        @Label("Points")
+        int pointsCount;
+
+        Serialization(String operation, Class<?> type) {
+            this.operation = operation;
+            this.type = type;
+        }
+
+        void end(int pointsCount) {
+            if (shouldCommit()) {
+                this.pointsCount = pointsCount;
+                commit();
+            }
+        }
+    }
+}
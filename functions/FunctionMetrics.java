@@ -0,0 +1,197 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// реестр метрик ф-ций, обернутых Functions.instrumented. для каждого узла по имени
+// хранятся число вызовов, число NaN-результатов и аргументов вне области определения,
+// суммарное время и гистограмма задержек по степеням двойки наносекунд.
+// запись не создает объектов; при выключенном учете обертки сразу вызывают исходную ф-цию
+public final class FunctionMetrics {
+    // корзина i содержит задержки из [2^(i-1), 2^i) нс, корзина 0 - нулевые
+    public static final int BUCKETS = 64;
+
+    private static final Map<String, Node> NODES = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
+
+    private FunctionMetrics() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // включает или выключает учет во всех обертках
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    // снимки всех узлов, упорядоченные по имени
+    public static Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        for (Node node : NODES.values()) {
+            result.put(node.name, node.snapshot());
+        }
+        return result;
+    }
+
+    // снимок узла с указанным именем или null
+    public static Snapshot snapshot(String name) {
+        Node node = NODES.get(name);
+        return node == null ? null : node.snapshot();
+    }
+
+    // обнуляет счетчики, сами узлы остаются зарегистрированными
+    public static void reset() {
+        for (Node node : NODES.values()) {
+            node.reset();
+        }
+    }
+
+    // узлы с одинаковым именем делят общие счетчики
+    static Node node(String name, String type) {
+        return NODES.computeIfAbsent(name, key -> new Node(key, type));
+    }
+
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    static final class Node {
+        private final String name;
+        private final String type;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanResults = new LongAdder();
+        private final LongAdder outOfDomain = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private Node(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        void record(double x, double y, long nanos, double left, double right) {
+            calls.increment();
+            totalNanos.add(nanos);
+            histogram.incrementAndGet(bucket(nanos));
+            if (y != y) {
+                nanResults.increment();
+            }
+            if (x < left || x > right) {
+                outOfDomain.increment();
+            }
+        }
+
+        // пакет из count вызовов учитывается средним временем на вызов
+        void recordBatch(int count, long nanos, int nans, int outside) {
+            calls.add(count);
+            totalNanos.add(nanos);
+            histogram.addAndGet(bucket(nanos / count), count);
+            nanResults.add(nans);
+            outOfDomain.add(outside);
+        }
+
+        Snapshot snapshot() {
+            long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new Snapshot(name, type, calls.sum(), nanResults.sum(), outOfDomain.sum(), totalNanos.sum(), buckets);
+        }
+
+        void reset() {
+            calls.reset();
+            nanResults.reset();
+            outOfDomain.reset();
+            totalNanos.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    // неизменяемый снимок метрик одного узла; счетчики снимаются не атомарно друг с другом
+    public static final class Snapshot {
+        private final String name;
+        private final String type;
+        private final long calls;
+        private final long nanResults;
+        private final long outOfDomain;
+        private final long totalNanos;
+        private final long[] histogram;
+
+        Snapshot(String name, String type, long calls, long nanResults, long outOfDomain, long totalNanos, long[] histogram) {
+            this.name = name;
+            this.type = type;
+            this.calls = calls;
+            this.nanResults = nanResults;
+            this.outOfDomain = outOfDomain;
+            this.totalNanos = totalNanos;
+            this.histogram = histogram;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // простое имя класса обернутой ф-ции
+        public String getType() {
+            return type;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getNanResults() {
+            return nanResults;
+        }
+
+        public long getOutOfDomain() {
+            return outOfDomain;
+        }
+
+        // время включает вычисление вложенных узлов
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getMeanNanos() {
+            return calls == 0 ? Double.NaN : (double) totalNanos / calls;
+        }
+
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        // верхняя граница корзины, в которую попадает квантиль q из [0, 1]
+        public long percentileNanos(double q) {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Квантиль должен лежать в [0, 1]");
+            }
+            long total = Arrays.stream(histogram).sum();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : 1L << i);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        public String toString() {
+            return name + " (" + type + "): calls=" + calls + ", nan=" + nanResults + ", outOfDomain=" + outOfDomain
+                    + ", mean=" + String.format("%.1f", getMeanNanos()) + " ns, p50<=" + percentileNanos(0.5)
+                    + " ns, p99<=" + percentileNanos(0.99) + " ns";
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package functions;
+
+import functions.meta.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// упрощает дерево ф-ций из functions.meta, сокращая число уровней:
+// соседние Shift/Scale/Affine сливаются в один Affine, вложенные степени с целыми
+// показателями перемножаются, вложенные Sum и Mult разворачиваются в NarySum и NaryMult.
+// результат равен исходному алгебраически, но может отличаться в последних битах
+// из-за другого порядка округлений
+final class FunctionSimplifier {
+
+    private FunctionSimplifier() {}
+
+    static Function simplify(Function f) {
+        Class<?> type = f.getClass();
+        if (type == Shift.class || type == Scale.class || type == Affine.class) {
+            return simplifyAffine(f);
+        }
+        if (type == Power.class) {
+            Power power = (Power) f;
+            return power(simplify(power.getFunction()), power.getPower());
+        }
+        if (type == Sum.class || type == NarySum.class) {
+            return simplifySum(f);
+        }
+        if (type == Mult.class || type == NaryMult.class) {
+            return simplifyMult(f);
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) f;
+            return new Composition(simplify(composition.getF1()), simplify(composition.getF2()));
+        }
+        return f;
+    }
+
+    // коэффициенты scaleY * f(scaleX * x + shiftX) + shiftY узла Shift, Scale или Affine,
+    // либо null для остальных ф-ций
+    private static double[] affineCoefficients(Function f) {
+        Class<?> type = f.getClass();
+        if (type == Shift.class) {
+            Shift shift = (Shift) f;
+            return new double[]{1, -shift.getShiftX(), 1, shift.getShiftY()};
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) f;
+            return new double[]{1 / scale.getScaleX(), 0, scale.getScaleY(), 0};
+        }
+        if (type == Affine.class) {
+            Affine affine = (Affine) f;
+            return new double[]{affine.getScaleX(), affine.getShiftX(), affine.getScaleY(), affine.getShiftY()};
+        }
+        return null;
+    }
+
+    private static Function inner(Function f) {
+        if (f instanceof Shift) {
+            return ((Shift) f).getFunction();
+        }
+        if (f instanceof Scale) {
+            return ((Scale) f).getFunction();
+        }
+        return ((Affine) f).getFunction();
+    }
+
+    private static Function simplifyAffine(Function f) {
+        Function inner = simplify(inner(f));
+        // одиночный узел не меняем, чтобы не терять точность без выигрыша
+        if (affineCoefficients(inner) == null) {
+            return inner == inner(f) ? f : rebuild(f, inner);
+        }
+
+        // внешнее преобразование применяется к результату внутреннего:
+        // o.sy * (i.sy * g(i.sx * (o.sx * x + o.bx) + i.bx) + i.by) + o.by
+        double[] outer = affineCoefficients(f);
+        double[] in = affineCoefficients(inner);
+        double scaleX = in[0] * outer[0];
+        double shiftX = in[0] * outer[1] + in[1];
+        double scaleY = outer[2] * in[2];
+        double shiftY = outer[2] * in[3] + outer[3];
+        Function g = inner(inner);
+        if (scaleX == 1 && shiftX == 0 && scaleY == 1 && shiftY == 0) {
+            return g;
+        }
+        return new Affine(g, scaleX, shiftX, scaleY, shiftY);
+    }
+
+    // тот же узел над упрощенным аргументом
+    private static Function rebuild(Function f, Function inner) {
+        if (f instanceof Shift) {
+            return new Shift(inner, ((Shift) f).getShiftX(), ((Shift) f).getShiftY());
+        }
+        if (f instanceof Scale) {
+            return new Scale(inner, ((Scale) f).getScaleX(), ((Scale) f).getScaleY());
+        }
+        Affine affine = (Affine) f;
+        return new Affine(inner, affine.getScaleX(), affine.getShiftX(), affine.getScaleY(), affine.getShiftY());
+    }
+
+    // (g^p)^q = g^(p*q) верно для любых g, только если оба показателя целые
+    private static Function power(Function base, double power) {
+        if (power == 1) {
+            return base;
+        }
+        if (base.getClass() == Power.class && isInteger(power)) {
+            Power inner = (Power) base;
+            if (isInteger(inner.getPower())) {
+                return power(inner.getFunction(), inner.getPower() * power);
+            }
+        }
+        return new Power(base, power);
+    }
+
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+
+    private static Function simplifySum(Function f) {
+        List<Function> terms = new ArrayList<>();
+        double[] constant = {0};
+        collectTerms(f, terms, constant);
+        if (terms.size() == 1 && constant[0] == 0) {
+            return terms.get(0);
+        }
+        return new NarySum(terms.toArray(new Function[0]), constant[0]);
+    }
+
+    // раскрывает вложенные суммы; сдвиги только по y выносятся в общую константу
+    private static void collectTerms(Function f, List<Function> terms, double[] constant) {
+        if (f.getClass() == Sum.class) {
+            collectTerms(((Sum) f).getF1(), terms, constant);
+            collectTerms(((Sum) f).getF2(), terms, constant);
+        } else if (f.getClass() == NarySum.class) {
+            for (Function term : ((NarySum) f).getFunctions()) {
+                collectTerms(term, terms, constant);
+            }
+            constant[0] += ((NarySum) f).getConstant();
+        } else {
+            Function term = simplify(f);
+            double[] k = affineCoefficients(term);
+            if (k != null && k[0] == 1 && k[1] == 0 && k[2] == 1) {
+                constant[0] += k[3];
+                term = inner(term);
+            }
+            if (term.getClass() == NarySum.class) {
+                collectTerms(term, terms, constant);
+            } else {
+                terms.add(term);
+            }
+        }
+    }
+
+    private static Function simplifyMult(Function f) {
+        List<Function> factors = new ArrayList<>();
+        double[] constant = {1};
+        collectFactors(f, factors, constant);
+        if (factors.size() == 1 && constant[0] == 1) {
+            return factors.get(0);
+        }
+        return new NaryMult(factors.toArray(new Function[0]), constant[0]);
+    }
+
+    // раскрывает вложенные произведения; растяжения только по y выносятся в общий множитель
+    private static void collectFactors(Function f, List<Function> factors, double[] constant) {
+        if (f.getClass() == Mult.class) {
+            collectFactors(((Mult) f).getF1(), factors, constant);
+            collectFactors(((Mult) f).getF2(), factors, constant);
+        } else if (f.getClass() == NaryMult.class) {
+            for (Function factor : ((NaryMult) f).getFunctions()) {
+                collectFactors(factor, factors, constant);
+            }
+            constant[0] *= ((NaryMult) f).getConstant();
+        } else {
+            Function factor = simplify(f);
+            double[] k = affineCoefficients(factor);
+            if (k != null && k[0] == 1 && k[1] == 0 && k[3] == 0) {
+                constant[0] *= k[2];
+                factor = inner(factor);
+            }
+            if (factor.getClass() == NaryMult.class) {
+                collectFactors(factor, factors, constant);
+            } else {
+                factors.add(factor);
+            }
+        }
+    }
+}
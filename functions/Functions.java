@@ -30,5 +30,59 @@ public class Functions {
     public static Function composition(Function f1, Function f2) {
         return new Composition(f1, f2);
     }
-}
 
+    // упрощает дерево ф-ций: сливает соседние сдвиги и растяжения, вложенные степени,
+    // суммы и произведения; результат равен исходному с точностью до округлений
+    public static Function simplify(Function f) {
+        return FunctionSimplifier.simplify(f);
+    }
+
+    // оборачивает ф-цию в ограниченный кэш значений с параметрами spec
+    public static CachedFunction cached(Function f, CacheSpec spec) {
+        return new CachedFunction(f, spec);
+    }
+
+    // компилирует дерево ф-ций в одну цепочку вызовов; результаты совпадают с исходным деревом
+    public static Function compile(Function f) {
+        return FunctionCompiler.compile(f);
+    }
+
+    // кусочное приближение ф-ции рядами Чебышева на [a, b] с погрешностью не больше tolerance
+    // в проверочных точках; хранит десятки коэффициентов на кусок вместо плотной таблицы
+    public static ChebyshevFunction approximate(Function f, double a, double b, double tolerance) {
+        return ChebyshevFunction.approximate(f, a, b, tolerance);
+    }
+
+    // интеграл ф-ции по [a, b] с оценкой погрешности не больше tolerance: адаптивное правило
+    // Гаусса-Кронрода 7-15; табулированная ф-ция интегрируется точно по своим точкам
+    public static double integrate(Function f, double a, double b, double tolerance) {
+        return integrate(f, a, b, tolerance, 1);
+    }
+
+    // то же, но худшие куски уточняются параллельно в parallelism потоках
+    public static double integrate(Function f, double a, double b, double tolerance, int parallelism) {
+        if (f instanceof TabulatedFunction) {
+            return Integrator.tabulated((TabulatedFunction) f, a, b);
+        }
+        return Integrator.integrate(f, a, b, tolerance, Integrator.Rule.GAUSS_KRONROD, parallelism);
+    }
+
+    // интеграл адаптивной формулой Симпсона; в отличие от Гаусса-Кронрода вычисляет ф-цию
+    // на концах отрезка, поэтому не подходит для особенностей на концах
+    public static double integrateSimpson(Function f, double a, double b, double tolerance) {
+        return integrateSimpson(f, a, b, tolerance, 1);
+    }
+
+    public static double integrateSimpson(Function f, double a, double b, double tolerance, int parallelism) {
+        if (f instanceof TabulatedFunction) {
+            return Integrator.tabulated((TabulatedFunction) f, a, b);
+        }
+        return Integrator.integrate(f, a, b, tolerance, Integrator.Rule.SIMPSON, parallelism);
+    }
+
+    // оборачивает все узлы дерева ф-ций учетом вызовов в FunctionMetrics под именами
+    // name, name/f1, name/f1/function и т. д.; учет выключается FunctionMetrics.setEnabled(false)
+    public static Function instrumented(Function f, String name) {
+        return InstrumentedFunction.wrap(f, name);
+    }
+}
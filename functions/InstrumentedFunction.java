@@ -0,0 +1,107 @@
+package functions;
+
+import functions.meta.*;
+
+// обертка, учитывающая вызовы ф-ции в FunctionMetrics под заданным именем.
+// wrap оборачивает все узлы дерева functions.meta, имена детей строятся из имени
+// родителя и роли ребенка: "model/f1/function". время узла включает время детей.
+// область определения читается при каждом вызове, как в Sum и Mult: у поддерева с
+// табулированной ф-цией она меняется вместе с точками
+final class InstrumentedFunction implements Function {
+    private final Function function;
+    private final FunctionMetrics.Node metrics;
+
+    private InstrumentedFunction(Function function, String name) {
+        this.function = function;
+        this.metrics = FunctionMetrics.node(name, function.getClass().getSimpleName());
+    }
+
+    static Function wrap(Function f, String name) {
+        Class<?> type = f.getClass();
+        Function rebuilt = f;
+        if (type == Sum.class) {
+            Sum sum = (Sum) f;
+            rebuilt = new Sum(wrap(sum.getF1(), name + "/f1"), wrap(sum.getF2(), name + "/f2"));
+        } else if (type == Mult.class) {
+            Mult mult = (Mult) f;
+            rebuilt = new Mult(wrap(mult.getF1(), name + "/f1"), wrap(mult.getF2(), name + "/f2"));
+        } else if (type == Composition.class) {
+            Composition composition = (Composition) f;
+            rebuilt = new Composition(wrap(composition.getF1(), name + "/f1"), wrap(composition.getF2(), name + "/f2"));
+        } else if (type == Power.class) {
+            Power power = (Power) f;
+            rebuilt = new Power(wrap(power.getFunction(), name + "/function"), power.getPower());
+        } else if (type == Shift.class) {
+            Shift shift = (Shift) f;
+            rebuilt = new Shift(wrap(shift.getFunction(), name + "/function"), shift.getShiftX(), shift.getShiftY());
+        } else if (type == Scale.class) {
+            Scale scale = (Scale) f;
+            rebuilt = new Scale(wrap(scale.getFunction(), name + "/function"), scale.getScaleX(), scale.getScaleY());
+        } else if (type == Affine.class) {
+            Affine affine = (Affine) f;
+            rebuilt = new Affine(wrap(affine.getFunction(), name + "/function"),
+                    affine.getScaleX(), affine.getShiftX(), affine.getScaleY(), affine.getShiftY());
+        } else if (type == NarySum.class) {
+            NarySum sum = (NarySum) f;
+            rebuilt = new NarySum(wrapAll(sum.getFunctions(), name), sum.getConstant());
+        } else if (type == NaryMult.class) {
+            NaryMult mult = (NaryMult) f;
+            rebuilt = new NaryMult(wrapAll(mult.getFunctions(), name), mult.getConstant());
+        }
+        return new InstrumentedFunction(rebuilt, name);
+    }
+
+    private static Function[] wrapAll(Function[] functions, String name) {
+        for (int i = 0; i < functions.length; i++) {
+            functions[i] = wrap(functions[i], name + "/" + i);
+        }
+        return functions;
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        if (!FunctionMetrics.isEnabled()) {
+            return function.getFunctionValue(x);
+        }
+        long start = System.nanoTime();
+        double y = function.getFunctionValue(x);
+        long nanos = System.nanoTime() - start;
+        metrics.record(x, y, nanos, function.getLeftDomainBorder(), function.getRightDomainBorder());
+        return y;
+    }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        if (!FunctionMetrics.isEnabled() || to <= from) {
+            function.evaluate(xs, out, from, to);
+            return;
+        }
+        // out может совпадать с xs, поэтому аргументы проверяются до вычисления
+        double lo = function.getLeftDomainBorder();
+        double hi = function.getRightDomainBorder();
+        int outside = 0;
+        for (int i = from; i < to; i++) {
+            if (xs[i] < lo || xs[i] > hi) {
+                outside++;
+            }
+        }
+
+        long start = System.nanoTime();
+        function.evaluate(xs, out, from, to);
+        long nanos = System.nanoTime() - start;
+
+        int nans = 0;
+        for (int i = from; i < to; i++) {
+            if (out[i] != out[i]) {
+                nans++;
+            }
+        }
+        metrics.recordBatch(to - from, nanos, nans, outside);
+    }
+}
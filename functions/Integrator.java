@@ -0,0 +1,397 @@
+package functions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// численное интегрирование. произвольная ф-ция интегрируется глобально-адаптивно: отрезок
+// делится на куски, на каждом считаются значение и оценка погрешности квадратурного
+// правила, и пополам делятся куски с наибольшей оценкой, пока сумма оценок не станет не
+// больше допуска. в параллельном режиме за один шаг делится сразу несколько худших кусков,
+// а оценки их половин считаются в ForkJoinPool. табулированная ф-ция интегрируется точно
+// за один проход по точкам; интерполянт вычисляется только на неполных крайних интервалах
+final class Integrator {
+    // не больше стольких кусков, иначе ф-ция считается неинтегрируемой с такой точностью
+    private static final int MAX_PIECES = 1 << 16;
+    // сколько кусков на поток делится за один шаг параллельного интегрирования
+    private static final int PIECES_PER_THREAD = 8;
+    // наименьшее число кусков, оценки которых имеет смысл отдавать отдельной задаче
+    private static final int MIN_CHUNK = 8;
+    private static final double EPSILON = 1e-10;
+    // оценка погрешности не меньше ROUNDOFF * интеграл |f| по куску, как в QUADPACK:
+    // точнее интеграл не посчитать из-за округления значений ф-ции
+    private static final double ROUNDOFF = 50 * Math.ulp(1.0);
+
+    // квадратурное правило: узлы на [-1, 1] и значение с оценкой погрешности по значениям в них
+    enum Rule {
+        // 15-точечное правило Гаусса-Кронрода. погрешность, как в QUADPACK, получается из
+        // разности с вложенным 7-точечным правилом Гаусса, усиленной в степени 3/2 относительно
+        // разброса ф-ции на куске: простая разность занижает погрешность у ф-ций с изломами.
+        // концы отрезка не вычисляются, поэтому допустимы интегрируемые особенности на концах
+        GAUSS_KRONROD(kronrodNodes()) {
+            void estimate(double[] values, int offset, double radius, double[] result, int index) {
+                double center = values[offset + 7];
+                double kronrod = KRONROD_WEIGHTS[7] * center;
+                double gauss = GAUSS_WEIGHTS[3] * center;
+                for (int k = 0; k < 7; k++) {
+                    double pair = values[offset + k] + values[offset + 14 - k];
+                    kronrod += KRONROD_WEIGHTS[k] * pair;
+                    if (k % 2 == 1) {
+                        gauss += GAUSS_WEIGHTS[k / 2] * pair;
+                    }
+                }
+                // среднее отклонение от среднего значения по весам Кронрода
+                double mean = kronrod / 2;
+                double spread = KRONROD_WEIGHTS[7] * Math.abs(center - mean);
+                for (int k = 0; k < 7; k++) {
+                    spread += KRONROD_WEIGHTS[k] * (Math.abs(values[offset + k] - mean) + Math.abs(values[offset + 14 - k] - mean));
+                }
+                double error = Math.abs(kronrod - gauss);
+                if (spread != 0 && error != 0) {
+                    error = spread * Math.min(1, Math.pow(200 * error / spread, 1.5));
+                }
+                double absolute = KRONROD_WEIGHTS[7] * Math.abs(center);
+                for (int k = 0; k < 7; k++) {
+                    absolute += KRONROD_WEIGHTS[k] * (Math.abs(values[offset + k]) + Math.abs(values[offset + 14 - k]));
+                }
+                double floor = ROUNDOFF * absolute * radius;
+                result[3 * index] = kronrod * radius;
+                result[3 * index + 1] = Math.max(floor, error * radius);
+                result[3 * index + 2] = floor;
+            }
+        },
+        // формула Симпсона по половинам отрезка с поправкой Ричардсона; погрешность -
+        // разность с формулой Симпсона по всему отрезку, деленная на 15
+        SIMPSON(new double[]{-1, -0.5, 0, 0.5, 1}) {
+            void estimate(double[] values, int offset, double radius, double[] result, int index) {
+                double f0 = values[offset];
+                double f1 = values[offset + 1];
+                double f2 = values[offset + 2];
+                double f3 = values[offset + 3];
+                double f4 = values[offset + 4];
+                double whole = radius / 3 * (f0 + 4 * f2 + f4);
+                double halves = radius / 6 * (f0 + 4 * f1 + 2 * f2 + 4 * f3 + f4);
+                double difference = (halves - whole) / 15;
+                double floor = ROUNDOFF * radius / 6 * (Math.abs(f0) + 4 * Math.abs(f1) + 2 * Math.abs(f2)
+                        + 4 * Math.abs(f3) + Math.abs(f4));
+                result[3 * index] = halves + difference;
+                result[3 * index + 1] = Math.max(floor, Math.abs(difference));
+                result[3 * index + 2] = floor;
+            }
+        };
+
+        final double[] nodes;
+
+        Rule(double[] nodes) {
+            this.nodes = nodes;
+        }
+
+        // по значениям в узлах values[offset ..] куска радиуса radius записывает значение
+        // в result[3 index], оценку погрешности - в result[3 index + 1], а ее нижнюю границу
+        // из-за округления - в result[3 index + 2]
+        abstract void estimate(double[] values, int offset, double radius, double[] result, int index);
+    }
+
+    // узлы Кронрода на [0, 1) по убыванию; нечетные - узлы Гаусса
+    private static final double[] KRONROD_ABSCISSAE = {
+            0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245};
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649, 0.209482141084727828012999174891714};
+    // веса Гаусса для узлов KRONROD_ABSCISSAE[1], [3], [5] и нуля
+    private static final double[] GAUSS_WEIGHTS = {
+            0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975, 0.417959183673469387755102040816327};
+
+    // узлы по возрастанию: -a0, ..., -a6, 0, a6, ..., a0
+    private static double[] kronrodNodes() {
+        double[] nodes = new double[15];
+        for (int k = 0; k < 7; k++) {
+            nodes[k] = -KRONROD_ABSCISSAE[k];
+            nodes[14 - k] = KRONROD_ABSCISSAE[k];
+        }
+        return nodes;
+    }
+
+    private Integrator() {}
+
+    static double integrate(Function f, double a, double b, double tolerance, Rule rule, int parallelism) {
+        if (!Double.isFinite(a) || !Double.isFinite(b)) {
+            throw new IllegalArgumentException("Границы интегрирования должны быть конечными");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть положительной");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть не менее 1");
+        }
+        if (Math.min(a, b) < f.getLeftDomainBorder() || Math.max(a, b) > f.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Отрезок интегрирования выходит за область определения ф-ции");
+        }
+        if (a == b) {
+            return 0;
+        }
+        if (a > b) {
+            return -integrate(f, b, a, tolerance, rule, parallelism);
+        }
+
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            return refine(f, a, b, tolerance, rule, pool, parallelism == 1 ? 1 : parallelism * PIECES_PER_THREAD);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // куски хранятся как {левая граница, правая граница, значение, оценка погрешности,
+    // погрешность округления}. если сумма погрешностей округления больше допуска, деление
+    // не поможет, и интегрирование прекращается
+    private static double refine(Function f, double a, double b, double tolerance, Rule rule, ForkJoinPool pool, int batch) {
+        PriorityQueue<double[]> pieces = new PriorityQueue<>((p, q) -> Double.compare(q[3], p[3]));
+
+        // в параллельном режиме отрезок сразу делится на batch равных кусков
+        double[] lefts = new double[batch];
+        double[] rights = new double[batch];
+        for (int i = 0; i < batch; i++) {
+            lefts[i] = a + (b - a) * i / batch;
+            rights[i] = i == batch - 1 ? b : a + (b - a) * (i + 1) / batch;
+        }
+        double[] estimates = estimate(f, rule, lefts, rights, batch, pool);
+        double error = 0;
+        double roundoff = 0;
+        for (int i = 0; i < batch; i++) {
+            pieces.add(new double[]{lefts[i], rights[i], estimates[3 * i], estimates[3 * i + 1], estimates[3 * i + 2]});
+            error += estimates[3 * i + 1];
+            roundoff += estimates[3 * i + 2];
+        }
+
+        lefts = new double[2 * batch];
+        rights = new double[2 * batch];
+        List<double[]> worst = new ArrayList<>(batch);
+        while (error > tolerance) {
+            if (roundoff > tolerance) {
+                throw new IllegalArgumentException("Не удается проинтегрировать ф-цию с точностью " + tolerance
+                        + ": погрешность округления около " + roundoff);
+            }
+            // худшие куски снимаются, пока оставшиеся не уложатся в половину допуска
+            worst.clear();
+            double taken = 0;
+            while (worst.size() < batch && !pieces.isEmpty() && (worst.isEmpty() || error - taken > tolerance / 2)) {
+                double[] piece = pieces.poll();
+                worst.add(piece);
+                taken += piece[3];
+                roundoff -= piece[4];
+            }
+            if (pieces.size() + 2 * worst.size() > MAX_PIECES) {
+                throw notConverged(tolerance, worst.get(0));
+            }
+
+            int count = 0;
+            for (double[] piece : worst) {
+                double middle = (piece[0] + piece[1]) / 2;
+                if (!(piece[0] < middle && middle < piece[1])) {
+                    throw notConverged(tolerance, piece);
+                }
+                lefts[count] = piece[0];
+                rights[count++] = middle;
+                lefts[count] = middle;
+                rights[count++] = piece[1];
+            }
+            estimates = estimate(f, rule, lefts, rights, count, pool);
+            error -= taken;
+            for (int i = 0; i < count; i++) {
+                pieces.add(new double[]{lefts[i], rights[i], estimates[3 * i], estimates[3 * i + 1], estimates[3 * i + 2]});
+                error += estimates[3 * i + 1];
+                roundoff += estimates[3 * i + 2];
+            }
+        }
+
+        double sum = 0;
+        for (double[] piece : pieces) {
+            sum += piece[2];
+        }
+        return sum;
+    }
+
+    private static IllegalArgumentException notConverged(double tolerance, double[] piece) {
+        return new IllegalArgumentException("Не удается проинтегрировать ф-цию с точностью " + tolerance
+                + " около отрезка [" + piece[0] + ", " + piece[1] + "]");
+    }
+
+    // оценки правила на кусках [lefts[i], rights[i]], i < count
+    private static double[] estimate(Function f, Rule rule, double[] lefts, double[] rights, int count, ForkJoinPool pool) {
+        double[] result = new double[3 * count];
+        if (pool == null || count <= MIN_CHUNK) {
+            estimate(f, rule, lefts, rights, result, 0, count);
+        } else {
+            pool.invoke(new EstimateTask(f, rule, lefts, rights, result, 0, count));
+        }
+        return result;
+    }
+
+    // значения во всех узлах кусков [from, to) вычисляются одним пакетом
+    private static void estimate(Function f, Rule rule, double[] lefts, double[] rights, double[] result, int from, int to) {
+        double[] nodes = rule.nodes;
+        int size = nodes.length;
+        double[] values = new double[(to - from) * size];
+        for (int i = from; i < to; i++) {
+            double middle = (lefts[i] + rights[i]) / 2;
+            double radius = (rights[i] - lefts[i]) / 2;
+            int offset = (i - from) * size;
+            for (int k = 0; k < size; k++) {
+                values[offset + k] = middle + radius * nodes[k];
+            }
+            // концы берутся точно, а не через округленные middle и radius
+            if (nodes[0] == -1) {
+                values[offset] = lefts[i];
+                values[offset + size - 1] = rights[i];
+            }
+        }
+        f.evaluate(values, values, 0, values.length);
+        for (int i = from; i < to; i++) {
+            int offset = (i - from) * size;
+            for (int k = 0; k < size; k++) {
+                if (!Double.isFinite(values[offset + k])) {
+                    double x = (lefts[i] + rights[i]) / 2 + (rights[i] - lefts[i]) / 2 * nodes[k];
+                    throw new IllegalArgumentException("Значение ф-ции в точке " + x + " не является конечным числом");
+                }
+            }
+            rule.estimate(values, offset, (rights[i] - lefts[i]) / 2, result, i);
+        }
+    }
+
+    // задача, вычисляющая оценки на кусках [from, to)
+    private static class EstimateTask extends RecursiveAction {
+        private final Function function;
+        private final Rule rule;
+        private final double[] lefts;
+        private final double[] rights;
+        private final double[] result;
+        private final int from;
+        private final int to;
+
+        EstimateTask(Function function, Rule rule, double[] lefts, double[] rights, double[] result, int from, int to) {
+            this.function = function;
+            this.rule = rule;
+            this.lefts = lefts;
+            this.rights = rights;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from <= MIN_CHUNK) {
+                estimate(function, rule, lefts, rights, result, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EstimateTask(function, rule, lefts, rights, result, from, middle),
+                    new EstimateTask(function, rule, lefts, rights, result, middle, to));
+        }
+    }
+
+    // точный интеграл табулированной ф-ции по [a, b]. при линейной интерполяции это
+    // формула трапеций по точкам; у кубических режимов ArrayTabulatedFunction и
+    // LinkedListTabulatedFunction к ней добавляется h^2 (b_i - b_{i+1}) / 12 по производным в
+    // точках, что точно для кубического многочлена Эрмита. неполные крайние интервалы при
+    // кубической интерполяции считаются по двум точкам Гаусса, тоже точным для кубики
+    static double tabulated(TabulatedFunction f, double a, double b) {
+        if (f instanceof ConcurrentTabulatedFunction) {
+            return ((ConcurrentTabulatedFunction) f).integrate(a, b);
+        }
+        if (a > b) {
+            return -tabulated(f, b, a);
+        }
+        int count = f.getPointsCount();
+        double leftX = f.getPointX(0);
+        double rightX = f.getPointX(count - 1);
+        if (!(a >= leftX - EPSILON && b <= rightX + EPSILON)) {
+            throw new IllegalArgumentException("Отрезок интегрирования выходит за область определения ф-ции");
+        }
+        a = Math.max(a, leftX);
+        b = Math.min(b, rightX);
+
+        double[] slopes = null;
+        if (f instanceof ArrayTabulatedFunction) {
+            slopes = ((ArrayTabulatedFunction) f).slopes();
+        } else if (f instanceof LinkedListTabulatedFunction) {
+            slopes = ((LinkedListTabulatedFunction) f).slopes();
+        }
+
+        // точки [first, last] лежат в [a, b]; интервалы между ними полные, а по краям
+        // остаются неполные интервалы [a, x_first] и [x_last, b]
+        int first = firstNotLess(f, count, a);
+        int last = firstNotLess(f, count, b);
+        if (last == count || f.getPointX(last) > b) {
+            last--;
+        }
+        if (first > last) {
+            return partial(f, first - 1, a, b, slopes);
+        }
+
+        double sum = 0;
+        double x1 = f.getPointX(first);
+        double y1 = f.getPointY(first);
+        for (int i = first; i < last; i++) {
+            double x2 = f.getPointX(i + 1);
+            double y2 = f.getPointY(i + 1);
+            sum += (x2 - x1) * (y1 + y2);
+            x1 = x2;
+            y1 = y2;
+        }
+        sum /= 2;
+        if (slopes != null) {
+            double correction = 0;
+            for (int i = first; i < last; i++) {
+                double h = f.getPointX(i + 1) - f.getPointX(i);
+                correction += h * h * (slopes[i] - slopes[i + 1]);
+            }
+            sum += correction / 12;
+        }
+        if (a < f.getPointX(first)) {
+            sum += partial(f, first - 1, a, f.getPointX(first), slopes);
+        }
+        if (b > x1) {
+            sum += partial(f, last, x1, b, slopes);
+        }
+        return sum;
+    }
+
+    // интеграл по части [from, to] интервала [x_i, x_{i + 1}]
+    private static double partial(TabulatedFunction f, int i, double from, double to, double[] slopes) {
+        if (slopes != null) {
+            double middle = (from + to) / 2;
+            double offset = (to - from) / (2 * Math.sqrt(3));
+            return (to - from) / 2 * (f.getFunctionValue(middle - offset) + f.getFunctionValue(middle + offset));
+        }
+        double x1 = f.getPointX(i);
+        double y1 = f.getPointY(i);
+        double slope = (f.getPointY(i + 1) - y1) / (f.getPointX(i + 1) - x1);
+        return (to - from) * (y1 + slope * ((from + to) / 2 - x1));
+    }
+
+    // наименьший индекс точки с x >= value или count, если таких нет
+    private static int firstNotLess(TabulatedFunction f, int count, double value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (f.getPointX(middle) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
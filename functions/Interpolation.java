@@ -0,0 +1,40 @@
+package functions;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+
+// способ вычисления значений табулированной ф-ции между точками
+public enum Interpolation {
+    // отрезок прямой между соседними точками
+    LINEAR,
+    // естественный кубический сплайн: непрерывна вторая производная, на концах она равна нулю
+    NATURAL_SPLINE,
+    // сплайн Акимы: производные в точках по пяти соседним точкам, без выбросов около изломов
+    AKIMA,
+    // монотонный эрмитов сплайн Фрича-Карлсона: на участках монотонности данных нет выбросов
+    MONOTONE;
+
+    // режим табулированной ф-ции; у реализаций без выбора режима - LINEAR
+    static Interpolation of(TabulatedFunction function) {
+        if (function instanceof ArrayTabulatedFunction) {
+            return ((ArrayTabulatedFunction) function).getInterpolation();
+        }
+        if (function instanceof LinkedListTabulatedFunction) {
+            return ((LinkedListTabulatedFunction) function).getInterpolation();
+        }
+        if (function instanceof ConcurrentTabulatedFunction) {
+            return ((ConcurrentTabulatedFunction) function).getInterpolation();
+        }
+        return LINEAR;
+    }
+
+    // номер режима из сериализованной ф-ции
+    static Interpolation read(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= values().length) {
+            throw new InvalidObjectException("неизвестный режим интерполяции " + ordinal);
+        }
+        return values()[ordinal];
+    }
+}
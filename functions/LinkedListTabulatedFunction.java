@@ -3,14 +3,25 @@ package functions;
 import java.io.*;
 
 public class LinkedListTabulatedFunction implements TabulatedFunction, Serializable {
-    private FunctionNode head;
-    private int pointcount;
+    // список сериализуется вручную плоским блоком координат (см. writeObject)
+    private transient FunctionNode head;
+    private transient int pointcount;
+    // последний узел, к которому было обращение по индексу, и его индекс;
+    // от него можно начать обход, если он ближе головы и хвоста
+    private transient FunctionNode lastNode;
+    private transient int lastIndex;
+    // режим интерполяции записывается в writeObject после координат
+    private transient Interpolation interpolation = Interpolation.LINEAR;
     private static final double EPSILON = 1e-10;
 
-    private static class FunctionNode implements Serializable {
+    private static class FunctionNode {
         private FunctionPoint point;
         private FunctionNode prev;
         private FunctionNode next;
+        // коэффициенты кубического многочлена на интервале до следующего узла (см. CubicInterpolation)
+        private double b;
+        private double c;
+        private double d;
 
         public FunctionNode(FunctionPoint point) {
             this.point = point; // устанавливаем точку
@@ -109,23 +120,82 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         }
     }
 
+    // записывает кол-во точек и пары координат вместо графа узлов:
+    // меньше объем и нет рекурсии по next/prev на длинных списках
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        FunctionEvents.Serialization event = new FunctionEvents.Serialization("write", LinkedListTabulatedFunction.class);
+        event.begin();
+        out.defaultWriteObject();
+        // отрицательное кол-во ~pointcount - после координат записан кубический режим
+        boolean cubic = interpolation != Interpolation.LINEAR;
+        out.writeInt(cubic ? ~pointcount : pointcount);
+        for (FunctionNode node = head.getNext(); node != head; node = node.getNext()) {
+            out.writeDouble(node.getPoint().getX());
+            out.writeDouble(node.getPoint().getY());
+        }
+        if (cubic) {
+            out.writeByte(interpolation.ordinal());
+        }
+        event.end(pointcount);
+    }
+
+    // восстанавливает кольцо итеративно, добавляя узлы в хвост
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        FunctionEvents.Serialization event = new FunctionEvents.Serialization("read", LinkedListTabulatedFunction.class);
+        event.begin();
+        in.defaultReadObject();
+        int count = in.readInt();
+        boolean cubic = count < 0;
+        if (cubic) {
+            count = ~count;
+        }
+
+        head = new FunctionNode(null);
+        head.setPrev(head);
+        head.setNext(head);
+        interpolation = Interpolation.LINEAR;
+        for (int i = 0; i < count; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            addNodeToTail(new FunctionPoint(x, y));
+        }
+        if (cubic) {
+            setInterpolation(Interpolation.read(in));
+        }
+        event.end(count);
+    }
+
     private FunctionNode getNodeByIndex(int index) {
         if (index < 0 || index >= pointcount) {
             throw new FunctionPointIndexOutOfBoundsException("индекс выходит за границы");
         }
 
+        // начинаем с ближайшей из трех точек: головы, хвоста или запомненного узла
         FunctionNode current;
+        int currentIndex;
         if (index < pointcount / 2) {
             current = head.getNext();
-            for (int i = 0; i < index; i++) {
-                current = current.getNext();
-            }
+            currentIndex = 0;
         } else {
             current = head.getPrev();
-            for (int i = pointcount - 1; i > index; i--) {
-                current = current.getPrev();
-            }
+            currentIndex = pointcount - 1;
+        }
+        if (lastNode != null && Math.abs(index - lastIndex) < Math.abs(index - currentIndex)) {
+            current = lastNode;
+            currentIndex = lastIndex;
+        }
+
+        while (currentIndex < index) {
+            current = current.getNext();
+            currentIndex++;
+        }
+        while (currentIndex > index) {
+            current = current.getPrev();
+            currentIndex--;
         }
+
+        lastNode = current;
+        lastIndex = index;
         return current;
     }
 
@@ -160,6 +230,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         prevNode.setNext(newNode);
         currentNode.setPrev(newNode);
 
+        // узлы начиная с index сдвинулись на одну позицию вправо
+        if (lastNode != null && index <= lastIndex) {
+            lastIndex++;
+        }
+
         pointcount++;
         return newNode; // возвращаем новый узел
     }
@@ -176,6 +251,13 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         prevNode.setNext(nextNode);
         nextNode.setPrev(prevNode);
 
+        // удаленный узел больше не может служить точкой начала обхода
+        if (nodeToDelete == lastNode) {
+            lastNode = null;
+        } else if (lastNode != null && index < lastIndex) {
+            lastIndex--;
+        }
+
         pointcount--;
         return nodeToDelete; // возвращаем удаленный узел
     }
@@ -202,30 +284,156 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             return Double.NaN;
         }
 
-        // ищем точку с точно таким же x
-        FunctionNode current = head.getNext();
-        while (current != head) {
-            if (Math.abs(current.getPoint().getX() - x) < EPSILON) { // используем EPSILON вместо 1e-10
-                return current.getPoint().getY();
+        if (pointcount == 1) {
+            return head.getNext().getPoint().getY();
+        }
+
+        // за один проход ищем левый конец интервала, идя с той стороны, к которой x ближе
+        FunctionNode current;
+        if (x - leftBorder <= rightBorder - x) {
+            current = head.getNext();
+            while (current.getNext().getNext() != head && current.getNext().getPoint().getX() <= x) {
+                current = current.getNext();
+            }
+        } else {
+            current = head.getPrev().getPrev();
+            while (current.getPrev() != head && current.getPoint().getX() > x) {
+                current = current.getPrev();
             }
-            current = current.getNext();
         }
 
-        // совпадения нет - ищем интервал для интерполяции
-        current = head.getNext();
-        while (current != head && current.getNext() != head) {
-            double x1 = current.getPoint().getX();
-            double x2 = current.getNext().getPoint().getX();
-
-            if (x >= x1 - EPSILON && x <= x2 + EPSILON) { // используем EPSILON
-                double y1 = current.getPoint().getY();
-                double y2 = current.getNext().getPoint().getY();
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        return valueInInterval(current, x);
+    }
+
+    // вычисляет значения в наборе точек; если точки упорядочены,
+    // интервалы находятся одним проходом по списку
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        boolean sorted = pointcount >= 2;
+        for (int i = from + 1; sorted && i < to; i++) {
+            sorted = xs[i - 1] <= xs[i];
+        }
+        if (!sorted) {
+            for (int i = from; i < to; i++) {
+                out[i] = getFunctionValue(xs[i]);
             }
-            current = current.getNext();
+            return;
         }
 
-        return Double.NaN;
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        FunctionNode current = head.getNext();
+        for (int i = from; i < to; i++) {
+            double x = xs[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
+                continue;
+            }
+            while (current.getNext().getNext() != head && current.getNext().getPoint().getX() <= x) {
+                current = current.getNext();
+            }
+            out[i] = valueInInterval(current, x);
+        }
+    }
+
+    // значение ф-ции в точке x, лежащей в интервале между узлом left и следующим за ним
+    private double valueInInterval(FunctionNode left, double x) {
+        FunctionPoint p1 = left.getPoint();
+        FunctionPoint p2 = left.getNext().getPoint();
+
+        // точки отстоят друг от друга больше чем на EPSILON,
+        // поэтому совпасть с x могут только концы найденного интервала
+        if (Math.abs(p1.getX() - x) < EPSILON) {
+            return p1.getY();
+        }
+        if (Math.abs(p2.getX() - x) < EPSILON) {
+            return p2.getY();
+        }
+
+        double x1 = p1.getX();
+        double x2 = p2.getX();
+        double y1 = p1.getY();
+        double y2 = p2.getY();
+        if (interpolation != Interpolation.LINEAR) {
+            double s = x - x1;
+            return y1 + s * (left.b + s * (left.c + s * left.d));
+        }
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    // выбирает режим интерполяции и вычисляет коэффициенты для всех интервалов
+    public void setInterpolation(Interpolation interpolation) {
+        if (interpolation == null) {
+            throw new IllegalArgumentException("режим интерполяции не задан");
+        }
+        this.interpolation = interpolation;
+        updateCoefficients(0, pointcount);
+    }
+
+    // производные в узлах для кубических режимов, null в линейном
+    double[] slopes() {
+        if (interpolation == Interpolation.LINEAR) {
+            return null;
+        }
+        double[] bs = new double[pointcount];
+        FunctionNode node = head.getNext();
+        for (int k = 0; k < pointcount; k++, node = node.getNext()) {
+            bs[k] = node.b;
+        }
+        return bs;
+    }
+
+    // пересчитывает производные в узлах [from, to) и коэффициенты затронутых интервалов.
+    // координаты окна узлов копируются в массивы, чтобы считать тем же кодом, что и у
+    // ArrayTabulatedFunction; окно шире пересчитываемых узлов на REACH с каждой стороны,
+    // поэтому его края не влияют на результат. естественный сплайн пересчитывается целиком
+    private void updateCoefficients(int from, int to) {
+        if (interpolation == Interpolation.LINEAR || pointcount < 2) {
+            return;
+        }
+        from = Math.max(from, 0);
+        to = Math.min(to, pointcount);
+        int windowFrom = Math.max(from - CubicInterpolation.REACH, 0);
+        int windowTo = Math.min(to + CubicInterpolation.REACH, pointcount);
+        if (interpolation == Interpolation.NATURAL_SPLINE || pointcount == 2) {
+            from = windowFrom = 0;
+            to = windowTo = pointcount;
+        }
+
+        int size = windowTo - windowFrom;
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] bs = new double[size];
+        double[] cs = new double[size];
+        double[] ds = new double[size];
+        FunctionNode first = getNodeByIndex(windowFrom);
+        FunctionNode node = first;
+        for (int k = 0; k < size; k++, node = node.getNext()) {
+            xs[k] = node.getPoint().getX();
+            ys[k] = node.getPoint().getY();
+            bs[k] = node.b;
+            cs[k] = node.c;
+            ds[k] = node.d;
+        }
+
+        CubicInterpolation.slopes(interpolation, xs, ys, size, bs, cs, from - windowFrom, to - windowFrom);
+        CubicInterpolation.coefficients(xs, ys, bs, cs, ds,
+                Math.max(from - 1, 0) - windowFrom, Math.min(to, pointcount - 1) - windowFrom);
+
+        node = first;
+        for (int k = 0; k < size; k++, node = node.getNext()) {
+            node.b = bs[k];
+            node.c = cs[k];
+            node.d = ds[k];
+        }
+    }
+
+    // после изменения узла index меняются производные только в ближайших узлах
+    private void updateCoefficientsAround(int index) {
+        updateCoefficients(index - CubicInterpolation.REACH, index + CubicInterpolation.REACH + 1);
     }
 
     public int getPointsCount() {
@@ -246,15 +454,18 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new FunctionPointIndexOutOfBoundsException("индекс выходит за границы");
         }
 
+        // соседей берем по ссылкам узла, а не повторным поиском по индексу
+        FunctionNode node = getNodeByIndex(index);
         double newX = point.getX();
-        if (index > 0 && newX <= getNodeByIndex(index - 1).getPoint().getX() + EPSILON) { // используем EPSILON
+        if (index > 0 && newX <= node.getPrev().getPoint().getX() + EPSILON) { // используем EPSILON
             throw new InappropriateFunctionPointException("нарушение порядка точек");
         }
-        if (index < pointcount - 1 && newX >= getNodeByIndex(index + 1).getPoint().getX() - EPSILON) { // используем EPSILON
+        if (index < pointcount - 1 && newX >= node.getNext().getPoint().getX() - EPSILON) { // используем EPSILON
             throw new InappropriateFunctionPointException("нарушение порядка точек");
         }
 
-        getNodeByIndex(index).setPoint(new FunctionPoint(point));
+        node.setPoint(new FunctionPoint(point));
+        updateCoefficientsAround(index);
     }
 
     public double getPointX(int index) {
@@ -281,9 +492,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (index < 0 || index >= pointcount) {
             throw new FunctionPointIndexOutOfBoundsException("индекс выходит за границы");
         }
-        FunctionPoint currentPoint = getNodeByIndex(index).getPoint();
+        FunctionNode node = getNodeByIndex(index);
+        FunctionPoint currentPoint = node.getPoint();
         FunctionPoint newPoint = new FunctionPoint(currentPoint.getX(), y);
-        getNodeByIndex(index).setPoint(newPoint);
+        node.setPoint(newPoint);
+        updateCoefficientsAround(index);
     }
 
     public void deletePoint(int index) {
@@ -294,6 +507,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new IllegalStateException("невозможно удалить точку");
         }
         deleteNodeByIndex(index);
+        updateCoefficientsAround(index);
     }
 
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
@@ -310,5 +524,47 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         }
 
         addNodeByIndex(insertIndex, new FunctionPoint(point));
+        updateCoefficientsAround(insertIndex);
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        addPoints(PointBatch.of(points));
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        addPoints(PointBatch.of(xs, ys));
+    }
+
+    // первый проход по списку только проверяет совпадения, второй вставляет узлы
+    private void addPoints(PointBatch batch) throws InappropriateFunctionPointException {
+        FunctionNode current = head.getNext();
+        for (int i = 0; i < batch.count; i++) {
+            double x = batch.xs[i];
+            while (current != head && current.getPoint().getX() < x) {
+                current = current.getNext();
+            }
+            if ((current.getPrev() != head && x - current.getPrev().getPoint().getX() < EPSILON)
+                    || (current != head && current.getPoint().getX() - x < EPSILON)) {
+                throw new InappropriateFunctionPointException("точка с таким x уже существует");
+            }
+        }
+
+        current = head.getNext();
+        for (int i = 0; i < batch.count; i++) {
+            double x = batch.xs[i];
+            while (current != head && current.getPoint().getX() < x) {
+                current = current.getNext();
+            }
+            FunctionNode newNode = new FunctionNode(new FunctionPoint(x, batch.ys[i]));
+            FunctionNode prevNode = current.getPrev();
+            newNode.setPrev(prevNode);
+            newNode.setNext(current);
+            prevNode.setNext(newNode);
+            current.setPrev(newNode);
+        }
+        pointcount += batch.count;
+        // индексы узлов сдвинулись
+        lastNode = null;
+        updateCoefficients(0, pointcount);
     }
 }
\ No newline at end of file
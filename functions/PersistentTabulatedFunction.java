@@ -0,0 +1,339 @@
+package functions;
+
+// неизменяемая табулированная ф-ция. точки хранятся в персистентном AVL-дереве по x
+// с размерами поддеревьев: withPoint, withoutPoint и withPointY копируют только путь
+// от корня до изменяемого узла (O(log n)), остальные узлы делятся между версиями.
+// любую версию можно читать из нескольких потоков без блокировок. интерполяция только
+// линейная: ф-ции с кубическим режимом Interpolation не принимаются
+public final class PersistentTabulatedFunction implements TabulatedFunction {
+    private static final double EPSILON = 1e-10;
+
+    private final Node root;
+    private final double leftX;
+    private final double rightX;
+
+    // конструктор, получающий массив точек
+    public PersistentTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+            if (i > 0 && xs[i - 1] >= xs[i] - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        root = build(xs, ys, 0, points.length);
+        leftX = xs[0];
+        rightX = xs[points.length - 1];
+    }
+
+    // снимок точек другой табулированной ф-ции с линейной интерполяцией
+    public PersistentTabulatedFunction(TabulatedFunction source) {
+        if (Interpolation.of(source) != Interpolation.LINEAR) {
+            throw new IllegalArgumentException("Неизменяемая ф-ция поддерживает только линейную интерполяцию, а не "
+                    + Interpolation.of(source));
+        }
+        int count = source.getPointsCount();
+        if (count < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = source.getPointX(i);
+            ys[i] = source.getPointY(i);
+        }
+        root = build(xs, ys, 0, count);
+        leftX = xs[0];
+        rightX = xs[count - 1];
+    }
+
+    private PersistentTabulatedFunction(Node root) {
+        this.root = root;
+        this.leftX = first(root).x;
+        this.rightX = last(root).x;
+    }
+
+    // новая версия с добавленной точкой
+    public PersistentTabulatedFunction withPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        return new PersistentTabulatedFunction(insert(root, point.getX(), point.getY()));
+    }
+
+    // новая версия без точки с указанным индексом
+    public PersistentTabulatedFunction withoutPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        if (root.size <= 2) {
+            throw new IllegalStateException("Невозможно удалить точку - функция должна иметь как минимум 2 точки");
+        }
+        return new PersistentTabulatedFunction(deleteAt(root, index));
+    }
+
+    // новая версия с другим значением в точке с указанным индексом
+    public PersistentTabulatedFunction withPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return new PersistentTabulatedFunction(setYAt(root, index, y));
+    }
+
+    // изменяемая копия за O(n), без промежуточных объектов точек
+    public ArrayTabulatedFunction toMutable() {
+        int count = root.size;
+        double[] xs = new double[count + 3];
+        double[] ys = new double[count + 3];
+        fill(root, xs, ys, 0);
+        return new ArrayTabulatedFunction(xs, ys, count);
+    }
+
+    public double getLeftDomainBorder() {
+        return leftX;
+    }
+
+    public double getRightDomainBorder() {
+        return rightX;
+    }
+
+    public double getFunctionValue(double x) {
+        // NaN проходит обе проверки границ, поэтому отсекается отдельно
+        if (x != x || x < leftX - EPSILON || x > rightX + EPSILON) {
+            return Double.NaN;
+        }
+
+        // за один спуск находим соседние узлы: left.x <= x < right.x
+        Node left = null;
+        Node right = null;
+        for (Node node = root; node != null; ) {
+            if (node.x <= x) {
+                left = node;
+                node = node.right;
+            } else {
+                right = node;
+                node = node.left;
+            }
+        }
+        // x левее первой или правее последней точки в пределах EPSILON
+        if (left == null) {
+            return right.y;
+        }
+        if (right == null) {
+            return left.y;
+        }
+
+        if (Math.abs(left.x - x) < EPSILON) {
+            return left.y;
+        }
+        if (Math.abs(right.x - x) < EPSILON) {
+            return right.y;
+        }
+        return ((x - left.x) * (right.y - left.y)) / (right.x - left.x) + left.y;
+    }
+
+    public int getPointsCount() {
+        return root.size;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        Node node = nodeAt(root, index);
+        return new FunctionPoint(node.x, node.y);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return nodeAt(root, index).x;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkIndex(index);
+        return nodeAt(root, index).y;
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw immutable();
+    }
+
+    public void setPointX(int index, double x) {
+        throw immutable();
+    }
+
+    public void setPointY(int index, double y) {
+        throw immutable();
+    }
+
+    public void deletePoint(int index) {
+        throw immutable();
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw immutable();
+    }
+
+    public void addPoints(FunctionPoint[] points) {
+        throw immutable();
+    }
+
+    public void addPoints(double[] xs, double[] ys) {
+        throw immutable();
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("ф-ция неизменяема, используйте withPoint, withoutPoint и withPointY");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= root.size) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (root.size - 1) + "]");
+        }
+    }
+
+    private static final class Node {
+        final double x;
+        final double y;
+        final Node left;
+        final Node right;
+        final int height;
+        final int size;
+
+        Node(double x, double y, Node left, Node right) {
+            this.x = x;
+            this.y = y;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node build(double[] xs, double[] ys, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(xs[middle], ys[middle], build(xs, ys, from, middle), build(xs, ys, middle + 1, to));
+    }
+
+    private static int fill(Node node, double[] xs, double[] ys, int position) {
+        if (node == null) {
+            return position;
+        }
+        position = fill(node.left, xs, ys, position);
+        xs[position] = node.x;
+        ys[position] = node.y;
+        return fill(node.right, xs, ys, position + 1);
+    }
+
+    private static Node first(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node last(Node node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static Node nodeAt(Node node, int index) {
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    // соседи по x лежат на пути поиска, поэтому совпадение проверяется при спуске
+    private static Node insert(Node node, double x, double y) throws InappropriateFunctionPointException {
+        if (node == null) {
+            return new Node(x, y, null, null);
+        }
+        if (Math.abs(node.x - x) < EPSILON) {
+            throw new InappropriateFunctionPointException("Точка с X = " + x + " уже существует");
+        }
+        if (x < node.x) {
+            return balance(node.x, node.y, insert(node.left, x, y), node.right);
+        }
+        return balance(node.x, node.y, node.left, insert(node.right, x, y));
+    }
+
+    private static Node deleteAt(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(node.x, node.y, deleteAt(node.left, index), node.right);
+        }
+        if (index > leftSize) {
+            return balance(node.x, node.y, node.left, deleteAt(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        // удаляемый узел заменяем наименьшим из правого поддерева
+        Node next = first(node.right);
+        return balance(next.x, next.y, node.left, deleteFirst(node.right));
+    }
+
+    private static Node deleteFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.x, node.y, deleteFirst(node.left), node.right);
+    }
+
+    private static Node setYAt(Node node, int index, double y) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node(node.x, node.y, setYAt(node.left, index, y), node.right);
+        }
+        if (index > leftSize) {
+            return new Node(node.x, node.y, node.left, setYAt(node.right, index - leftSize - 1, y));
+        }
+        return new Node(node.x, y, node.left, node.right);
+    }
+
+    // узел (x, y) с поддеревьями, высоты которых отличаются не больше чем на 2; при
+    // перекосе выполняется одинарный или двойной поворот с копированием затронутых узлов
+    private static Node balance(double x, double y, Node left, Node right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.x, left.y, left.left, new Node(x, y, left.right, right));
+            }
+            Node middle = left.right;
+            return new Node(middle.x, middle.y,
+                    new Node(left.x, left.y, left.left, middle.left),
+                    new Node(x, y, middle.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(right.x, right.y, new Node(x, y, left, right.left), right.right);
+            }
+            Node middle = right.left;
+            return new Node(middle.x, middle.y,
+                    new Node(x, y, left, middle.left),
+                    new Node(right.x, right.y, middle.right, right.right));
+        }
+        return new Node(x, y, left, right);
+    }
+}
@@ -0,0 +1,107 @@
+package functions;
+
+// упорядоченная по x копия набора добавляемых точек;
+// при создании проверяется, что точки набора не совпадают друг с другом
+final class PointBatch {
+    private static final double EPSILON = 1e-10;
+
+    final double[] xs;
+    final double[] ys;
+    final int count;
+
+    private PointBatch(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        this.xs = xs;
+        this.ys = ys;
+        this.count = xs.length;
+        sort();
+        for (int i = 0; i < count - 1; i++) {
+            if (xs[i + 1] - xs[i] < EPSILON) {
+                throw duplicate(xs[i + 1]);
+            }
+        }
+    }
+
+    static PointBatch of(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        return new PointBatch(xs, ys);
+    }
+
+    static PointBatch of(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Массивы координат должны быть одной длины");
+        }
+        return new PointBatch(xs.clone(), ys.clone());
+    }
+
+    // проверка совпадений с уже имеющимися упорядоченными абсциссами за один проход
+    void checkAgainst(double[] existing, int existingCount) throws InappropriateFunctionPointException {
+        int p = 0;
+        for (int i = 0; i < count; i++) {
+            double x = xs[i];
+            while (p < existingCount && existing[p] < x) {
+                p++;
+            }
+            if ((p > 0 && x - existing[p - 1] < EPSILON) || (p < existingCount && existing[p] - x < EPSILON)) {
+                throw duplicate(x);
+            }
+        }
+    }
+
+    static InappropriateFunctionPointException duplicate(double x) {
+        return new InappropriateFunctionPointException("Точка с X = " + x + " уже существует");
+    }
+
+    // сортировка пар слиянием по индексам; уже упорядоченный набор не трогаем
+    private void sort() {
+        boolean sorted = true;
+        for (int i = 0; sorted && i < count - 1; i++) {
+            sorted = xs[i] <= xs[i + 1];
+        }
+        if (sorted) {
+            return;
+        }
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        mergeSort(order, new int[count], 0, count);
+
+        double[] sortedXs = new double[count];
+        double[] sortedYs = new double[count];
+        for (int i = 0; i < count; i++) {
+            sortedXs[i] = xs[order[i]];
+            sortedYs[i] = ys[order[i]];
+        }
+        System.arraycopy(sortedXs, 0, xs, 0, count);
+        System.arraycopy(sortedYs, 0, ys, 0, count);
+    }
+
+    private void mergeSort(int[] order, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle);
+        mergeSort(order, buffer, middle, to);
+        if (xs[order[middle - 1]] <= xs[order[middle]]) {
+            return;
+        }
+
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < middle && xs[buffer[left]] <= xs[buffer[right]])) {
+                order[k] = buffer[left++];
+            } else {
+                order[k] = buffer[right++];
+            }
+        }
+    }
+}
@@ -28,4 +28,28 @@ public interface TabulatedFunction extends Function {
 
     // добавляет новую точку в ф-цию
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
-}
\ No newline at end of file
+
+    // добавляет набор точек; если хоть одна точка совпадает с имеющейся или другой
+    // точкой набора, ф-ция не меняется. по умолчанию набор проверяется целиком, а затем
+    // точки добавляются по одной через addPoint; массив и список добавляют их одним слиянием
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        addBatch(PointBatch.of(points));
+    }
+
+    // то же для точек, заданных массивами координат одной длины
+    default void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        addBatch(PointBatch.of(xs, ys));
+    }
+
+    private void addBatch(PointBatch batch) throws InappropriateFunctionPointException {
+        int count = getPointsCount();
+        double[] existing = new double[count];
+        for (int i = 0; i < count; i++) {
+            existing[i] = getPointX(i);
+        }
+        batch.checkAgainst(existing, count);
+        for (int i = 0; i < batch.count; i++) {
+            addPoint(new FunctionPoint(batch.xs[i], batch.ys[i]));
+        }
+    }
+}
@@ -1,11 +1,303 @@
 package functions;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class TabulatedFunctions {
+    // наименьшая часть сетки, которую имеет смысл отдавать отдельной задаче
+    private static final int MIN_CHUNK = 4096;
+    // размер начальной сетки адаптивного табулирования
+    private static final int ADAPTIVE_INITIAL_POINTS = 17;
+    private static final double EPSILON = 1e-10;
+    // размер буфера для ввода-вывода через каналы, кратен размеру точки
+    private static final int CHANNEL_BUFFER_SIZE = 1 << 16;
+    private static final int POINT_BYTES = 2 * Double.BYTES;
+    // число точек в одном окне отображения файла в память (256 МБ)
+    private static final int MAP_WINDOW_POINTS = 1 << 24;
+
     private TabulatedFunctions() {}
 
     public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount) {
+        checkTabulation(function, leftX, rightX, pointsCount);
+        FunctionEvents.Tabulate event = new FunctionEvents.Tabulate("tabulate", function, leftX, rightX);
+        event.begin();
+
+        // создаем массив значений ф-ции
+        double[] values = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+
+        // вычисляем значения ф-ции
+        for (int i = 0; i < pointsCount; i++) {
+            double x = leftX + i * step;
+            values[i] = function.getFunctionValue(x);
+        }
+        event.end(pointsCount);
+
+        // возвращаем табулированную ф-цию на равномерной сетке, массив значений не копируется
+        return UniformGridTabulatedFunction.ofValues(leftX, rightX, values);
+    }
+
+    // табулирование с разбиением сетки на части, которые вычисляются параллельно
+    // в ForkJoinPool с заданным числом потоков. абсциссы точек совпадают с tabulate,
+    // значения считаются пакетно через Function.evaluate прямо в итоговый массив
+    public static TabulatedFunction tabulateParallel(Function function, double leftX, double rightX, int pointsCount, int parallelism) {
+        checkTabulation(function, leftX, rightX, pointsCount);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть не менее 1");
+        }
+        FunctionEvents.Tabulate event = new FunctionEvents.Tabulate("tabulateParallel", function, leftX, rightX);
+        event.begin();
+
+        double[] values = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+
+        // примерно по 8 частей на поток, чтобы потоки могли забирать работу друг у друга,
+        // но не меньше MIN_CHUNK точек, иначе накладные расходы на задачи превысят выигрыш
+        int chunk = Math.max(MIN_CHUNK, pointsCount / (parallelism * 8));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new TabulateTask(function, leftX, step, values, 0, pointsCount, chunk));
+        } finally {
+            pool.shutdown();
+        }
+        event.end(pointsCount);
+
+        return UniformGridTabulatedFunction.ofValues(leftX, rightX, values);
+    }
+
+    // задача, вычисляющая значения ф-ции на отрезке [from, to) сетки
+    private static class TabulateTask extends RecursiveAction {
+        private final Function function;
+        private final double leftX;
+        private final double step;
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        TabulateTask(Function function, double leftX, double step, double[] values, int from, int to, int chunk) {
+            this.function = function;
+            this.leftX = leftX;
+            this.step = step;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        protected void compute() {
+            if (to - from <= chunk) {
+                // сначала записываем абсциссы, затем заменяем их значениями ф-ции
+                for (int i = from; i < to; i++) {
+                    values[i] = leftX + i * step;
+                }
+                function.evaluate(values, values, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TabulateTask(function, leftX, step, values, from, middle, chunk),
+                    new TabulateTask(function, leftX, step, values, middle, to, chunk));
+        }
+    }
+
+    // адаптивное табулирование: интервалы делятся пополам, только пока линейная интерполяция
+    // в середине интервала отличается от ф-ции больше чем на tolerance, поэтому точки сгущаются
+    // там, где ф-ция сильно искривлена. число точек не превышает maxPoints
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX, double tolerance, int maxPoints) {
+        return tabulateAdaptive(function, leftX, rightX, tolerance, maxPoints, 1);
+    }
+
+    // то же, но середины всех интервалов одного шага вычисляются параллельно в parallelism потоках
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX, double tolerance, int maxPoints, int parallelism) {
+        checkTabulation(function, leftX, rightX, maxPoints);
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Допустимая погрешность должна быть положительной");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть не менее 1");
+        }
+        FunctionEvents.Tabulate event = new FunctionEvents.Tabulate("tabulateAdaptive", function, leftX, rightX);
+        event.begin();
+
+        // начинаем с грубой равномерной сетки: по одной середине на весь отрезок
+        // симметричная ф-ция может ошибочно выглядеть линейной
+        int count = Math.min(maxPoints, ADAPTIVE_INITIAL_POINTS);
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double step = (rightX - leftX) / (count - 1);
+        for (int i = 0; i < count; i++) {
+            xs[i] = leftX + i * step;
+            ys[i] = function.getFunctionValue(xs[i]);
+        }
+        // active[i] - нужно ли проверять интервал [xs[i], xs[i + 1]]
+        boolean[] active = new boolean[count - 1];
+        Arrays.fill(active, true);
+
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            while (count < maxPoints) {
+                // середины всех непроверенных интервалов, достаточно широких для деления
+                int[] intervals = new int[count - 1];
+                int activeCount = 0;
+                for (int i = 0; i < count - 1; i++) {
+                    if (active[i] && (xs[i + 1] - xs[i]) / 2 > EPSILON) {
+                        intervals[activeCount++] = i;
+                    }
+                }
+                if (activeCount == 0) {
+                    break;
+                }
+                double[] middles = new double[activeCount];
+                for (int k = 0; k < activeCount; k++) {
+                    int i = intervals[k];
+                    middles[k] = (xs[i] + xs[i + 1]) / 2;
+                }
+                double[] values = middles.clone();
+                if (pool != null) {
+                    pool.invoke(new EvaluateTask(function, values, 0, activeCount, MIN_CHUNK / 16));
+                } else {
+                    function.evaluate(values, values, 0, activeCount);
+                }
+
+                // погрешность интерполяции в середине каждого интервала. NaN (ф-ция не определена
+                // в середине или на конце) считается бесконечной, иначе порог из отсортированного
+                // массива может оказаться NaN, а такие интервалы не будут делиться. интервал, где
+                // ф-ция не определена ни в одной из трех точек, уточнять нечем - он не делится
+                double[] errors = new double[activeCount];
+                boolean[] split = new boolean[activeCount];
+                int splitCount = 0;
+                for (int k = 0; k < activeCount; k++) {
+                    int i = intervals[k];
+                    double error = Math.abs(values[k] - (ys[i] + ys[i + 1]) / 2);
+                    if (Double.isNaN(error)) {
+                        boolean undefined = Double.isNaN(values[k]) && Double.isNaN(ys[i]) && Double.isNaN(ys[i + 1]);
+                        error = undefined ? 0 : Double.POSITIVE_INFINITY;
+                    }
+                    errors[k] = error;
+                    if (errors[k] > tolerance) {
+                        split[k] = true;
+                        splitCount++;
+                    }
+                }
+                if (splitCount == 0) {
+                    break;
+                }
+
+                // если точек не хватает на все интервалы, делим ровно maxPoints - count интервалов
+                // с наибольшей погрешностью; при равных погрешностях - левые. остальные интервалы
+                // с погрешностью больше допуска остаются непроверенными
+                if (splitCount > maxPoints - count) {
+                    Integer[] order = new Integer[activeCount];
+                    for (int k = 0; k < activeCount; k++) {
+                        order[k] = k;
+                    }
+                    double[] e = errors;
+                    Arrays.sort(order, (p, q) -> e[p] != e[q] ? Double.compare(e[q], e[p]) : Integer.compare(p, q));
+                    splitCount = maxPoints - count;
+                    Arrays.fill(split, false);
+                    for (int r = 0; r < splitCount; r++) {
+                        split[order[r]] = true;
+                    }
+                }
+
+                double[] newXs = new double[count + splitCount];
+                double[] newYs = new double[count + splitCount];
+                boolean[] newActive = new boolean[count + splitCount - 1];
+                int k = 0;
+                int j = 0;
+                for (int i = 0; i < count - 1; i++) {
+                    newXs[j] = xs[i];
+                    newYs[j] = ys[i];
+                    if (k < activeCount && intervals[k] == i) {
+                        if (split[k]) {
+                            newActive[j] = true;
+                            j++;
+                            newXs[j] = middles[k];
+                            newYs[j] = values[k];
+                            newActive[j] = true;
+                        } else {
+                            newActive[j] = errors[k] > tolerance;
+                        }
+                        k++;
+                    }
+                    j++;
+                }
+                newXs[j] = xs[count - 1];
+                newYs[j] = ys[count - 1];
+
+                xs = newXs;
+                ys = newYs;
+                active = newActive;
+                count = j + 1;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        event.end(count);
+
+        return new ArrayTabulatedFunction(xs, ys, count);
+    }
+
+    // задача, заменяющая значения массива на значения ф-ции в этих точках
+    private static class EvaluateTask extends RecursiveAction {
+        private final Function function;
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        EvaluateTask(Function function, double[] values, int from, int to, int chunk) {
+            this.function = function;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        protected void compute() {
+            if (to - from <= chunk) {
+                function.evaluate(values, values, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(function, values, from, middle, chunk),
+                    new EvaluateTask(function, values, middle, to, chunk));
+        }
+    }
+
+    // точный интеграл табулированной ф-ции по всей области определения за один проход по точкам
+    public static double integrate(TabulatedFunction function) {
+        if (function instanceof ConcurrentTabulatedFunction) {
+            return ((ConcurrentTabulatedFunction) function).integrate();
+        }
+        return Integrator.tabulated(function, function.getLeftDomainBorder(), function.getRightDomainBorder());
+    }
+
+    // потокобезопасная копия табулированной ф-ции: чтение без блокировок, изменения под
+    // блокировкой записи; режим интерполяции сохраняется
+    public static ConcurrentTabulatedFunction concurrent(TabulatedFunction function) {
+        return new ConcurrentTabulatedFunction(function);
+    }
+
+    // неизменяемый снимок табулированной ф-ции, изменения которого порождают новые версии;
+    // принимаются только ф-ции с линейной интерполяцией
+    public static PersistentTabulatedFunction persistent(TabulatedFunction function) {
+        return new PersistentTabulatedFunction(function);
+    }
+
+    // проверка параметров табулирования
+    private static void checkTabulation(Function function, double leftX, double rightX, int pointsCount) {
         // проверка границ
         if (leftX < function.getLeftDomainBorder() || rightX > function.getRightDomainBorder()) {
             throw new IllegalArgumentException("Границы табулирования выходят за область определения функции");
@@ -20,23 +312,12 @@ public class TabulatedFunctions {
         if (leftX >= rightX) {
             throw new IllegalArgumentException("Левая граница должна быть меньше правой");
         }
-
-        // создаем массив значений ф-ции
-        double[] values = new double[pointsCount];
-        double step = (rightX - leftX) / (pointsCount - 1);
-
-        // вычисляем значения ф-ции
-        for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            values[i] = function.getFunctionValue(x);
-        }
-
-        // возвращаем табулированную ф-цию
-        return new ArrayTabulatedFunction(leftX, rightX, values);
     }
 
     // вывод табулированной ф-ции в байтовый поток
     public static void outputTabulatedFunction(TabulatedFunction function, OutputStream out) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("outputStream");
+        event.begin();
         DataOutputStream dataOut = new DataOutputStream(out);
 
         // записываем кол-во точек
@@ -49,45 +330,184 @@ public class TabulatedFunctions {
         }
 
         dataOut.flush();
+        event.end(function.getPointsCount());
     }
 
     // ввод табулированной функции из байтового потока
     public static TabulatedFunction inputTabulatedFunction(InputStream in) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("inputStream");
+        event.begin();
         DataInputStream dataIn = new DataInputStream(in);
 
         // читаем кол-во точек
         int pointsCount = dataIn.readInt();
 
-        // читаем координаты точек
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        // читаем координаты точек сразу в массивы, которые станут хранилищем ф-ции
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
         for (int i = 0; i < pointsCount; i++) {
-            double x = dataIn.readDouble();
-            double y = dataIn.readDouble();
-            points[i] = new FunctionPoint(x, y);
+            xs[i] = dataIn.readDouble();
+            ys[i] = dataIn.readDouble();
         }
 
         // создаем табулированную ф-цию
-        return new ArrayTabulatedFunction(points);
+        TabulatedFunction function = fromArrays(xs, ys, pointsCount);
+        event.end(pointsCount);
+        return function;
     }
 
-    // запись ф-ции в символьный поток
-    public static void writeTabulatedFunction(TabulatedFunction function, Writer out) throws IOException {
-        PrintWriter writer = new PrintWriter(out);
+    // вывод табулированной ф-ции в канал в том же формате, что и outputTabulatedFunction:
+    // координаты пакетами переносятся в буфер через DoubleBuffer
+    public static void outputTabulatedFunction(TabulatedFunction function, WritableByteChannel channel) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("outputChannel");
+        event.begin();
+        int pointsCount = function.getPointsCount();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
 
-        // записываем кол-во точек
-        writer.print(function.getPointsCount());
-        writer.print(" ");
+        buffer.putInt(pointsCount);
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
 
-        for (int i = 0; i < function.getPointsCount(); i++) {
-            writer.print(function.getPointX(i));
-            writer.print(" ");
-            writer.print(function.getPointY(i));
-            if (i < function.getPointsCount() - 1) {
-                writer.print(" ");
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        int i = 0;
+        while (i < pointsCount) {
+            doubles.clear();
+            while (i < pointsCount && doubles.remaining() >= 2) {
+                doubles.put(function.getPointX(i));
+                doubles.put(function.getPointY(i));
+                i++;
+            }
+            buffer.clear();
+            buffer.limit(doubles.position() * Double.BYTES);
+            writeFully(channel, buffer);
+        }
+        event.end(pointsCount);
+    }
+
+    // ввод табулированной ф-ции из канала, записанной outputTabulatedFunction;
+    // координаты читаются пакетами прямо в массивы, которые станут хранилищем ф-ции
+    public static TabulatedFunction inputTabulatedFunction(ReadableByteChannel channel) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("inputChannel");
+        event.begin();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        readFully(channel, header);
+        int pointsCount = header.getInt(0);
+
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE);
+        int i = 0;
+        while (i < pointsCount) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (long) (pointsCount - i) * POINT_BYTES));
+            readFully(channel, buffer);
+            buffer.flip();
+
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            while (doubles.hasRemaining()) {
+                xs[i] = doubles.get();
+                ys[i] = doubles.get();
+                i++;
+            }
+        }
+
+        TabulatedFunction function = fromArrays(xs, ys, pointsCount);
+        event.end(pointsCount);
+        return function;
+    }
+
+    // ввод табулированной ф-ции из файла через отображение в память, начиная с текущей
+    // позиции канала; файл отображается окнами, поэтому размер не ограничен 2 ГБ.
+    // после чтения позиция канала переносится за конец ф-ции
+    public static TabulatedFunction mapTabulatedFunction(FileChannel channel) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("mapChannel");
+        event.begin();
+        long start = channel.position();
+        if (channel.size() - start < Integer.BYTES) {
+            throw new EOFException("нет заголовка табулированной ф-ции");
+        }
+        int pointsCount = channel.map(FileChannel.MapMode.READ_ONLY, start, Integer.BYTES).getInt(0);
+        long dataStart = start + Integer.BYTES;
+        if (channel.size() - dataStart < (long) pointsCount * POINT_BYTES) {
+            throw new EOFException("файл короче, чем указано в заголовке");
+        }
+
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        int i = 0;
+        while (i < pointsCount) {
+            int windowPoints = Math.min(pointsCount - i, MAP_WINDOW_POINTS);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    dataStart + (long) i * POINT_BYTES, (long) windowPoints * POINT_BYTES);
+            DoubleBuffer doubles = window.asDoubleBuffer();
+            for (int k = 0; k < windowPoints; k++) {
+                xs[i + k] = doubles.get(2 * k);
+                ys[i + k] = doubles.get(2 * k + 1);
             }
+            i += windowPoints;
         }
+        channel.position(dataStart + (long) pointsCount * POINT_BYTES);
+
+        TabulatedFunction function = fromArrays(xs, ys, pointsCount);
+        event.end(pointsCount);
+        return function;
+    }
 
-        writer.flush();
+    // вывод в сжатом двоичном формате: для равномерной сетки хранятся только ее границы,
+    // абсциссы неравномерной сетки - varint'ами разностей, ординаты - XOR-сжатием
+    public static void outputCompressed(TabulatedFunction function, OutputStream out) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("outputCompressed");
+        event.begin();
+        CompressedTabulatedFormat.write(function, out, EPSILON);
+        event.end(function.getPointsCount());
+    }
+
+    // ввод ф-ции, записанной outputCompressed; равномерная сетка читается в UniformGridTabulatedFunction
+    public static TabulatedFunction inputCompressed(InputStream in) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("inputCompressed");
+        event.begin();
+        TabulatedFunction function = CompressedTabulatedFormat.read(in, EPSILON);
+        event.end(function.getPointsCount());
+        return function;
+    }
+
+    // записывает в канал содержимое буфера от position до limit
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // заполняет буфер до limit, при преждевременном конце канала - EOFException
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("неожиданный конец данных табулированной ф-ции");
+            }
+        }
+    }
+
+    // создает ArrayTabulatedFunction из прочитанных массивов без копирования,
+    // с теми же проверками, что и конструктор из массива точек
+    private static TabulatedFunction fromArrays(double[] xs, double[] ys, int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        for (int i = 0; i < pointsCount - 1; i++) {
+            if (xs[i] >= xs[i + 1] - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        return new ArrayTabulatedFunction(xs, ys, pointsCount);
+    }
+
+    // запись ф-ции в символьный поток
+    public static void writeTabulatedFunction(TabulatedFunction function, Writer out) throws IOException {
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("writeText");
+        event.begin();
+        TabulatedTextFormat.write(function, out);
+        event.end(function.getPointsCount());
     }
 
     // считывание ф-ции из символьного потока
@@ -97,40 +517,34 @@ public class TabulatedFunctions {
             throw new IllegalArgumentException("передан нулевой поток ввода");
         }
 
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
-        tokenizer.parseNumbers();
+        FunctionEvents.TabulatedIo event = new FunctionEvents.TabulatedIo("readText");
+        event.begin();
+        TabulatedTextFormat.Scanner scanner = new TabulatedTextFormat.Scanner(in);
 
         // считываем число точек
-        int tokenType = tokenizer.nextToken();
-        if (tokenType != StreamTokenizer.TT_NUMBER) {
+        if (!scanner.nextNumber() || scanner.value() < 0) {
             throw new IOException("не найдено количество точек");
         }
-        int count = (int) tokenizer.nval;
-
-        // создаем массив для хранения точек
-        FunctionPoint[] functionPoints = new FunctionPoint[count];
+        int count = (int) scanner.value();
 
-        // считываем пары
+        // считываем пары сразу в массивы координат
+        double[] xs = new double[count];
+        double[] ys = new double[count];
         for (int i = 0; i < count; i++) {
-            // считываем x координату
-            tokenType = tokenizer.nextToken();
-            if (tokenType != StreamTokenizer.TT_NUMBER) {
+            if (!scanner.nextNumber()) {
                 throw new IOException("отсутствует x координата для точки " + i);
             }
-            double xCoord = tokenizer.nval;
+            xs[i] = scanner.value();
 
-            // считываем y координату
-            tokenType = tokenizer.nextToken();
-            if (tokenType != StreamTokenizer.TT_NUMBER) {
+            if (!scanner.nextNumber()) {
                 throw new IOException("отсутствует y координата для точки " + i);
             }
-            double yCoord = tokenizer.nval;
-
-            // создаем точку с полученными координатами
-            functionPoints[i] = new FunctionPoint(xCoord, yCoord);
+            ys[i] = scanner.value();
         }
 
         // возвращаем новую табулированную ф-цию
-        return new ArrayTabulatedFunction(functionPoints);
+        TabulatedFunction function = fromArrays(xs, ys, count);
+        event.end(count);
+        return function;
     }
-}
\ No newline at end of file
+}
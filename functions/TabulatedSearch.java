@@ -0,0 +1,73 @@
+package functions;
+
+// вспомогательные методы поиска интервала в упорядоченном массиве абсцисс
+final class TabulatedSearch {
+
+    private TabulatedSearch() {}
+
+    // бинарный поиск: возвращает индекс i в [0, count - 2] такой, что xs[i] <= x < xs[i + 1],
+    // для x вне массива возвращается крайний интервал
+    static int binarySearch(double[] xs, int count, double x) {
+        int lo = 0;
+        int hi = count - 1;
+        if (!(x > xs[lo])) {
+            return 0;
+        }
+        if (x >= xs[hi]) {
+            return count - 2;
+        }
+
+        // инвариант: xs[lo] <= x < xs[hi]
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] <= x) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // интерполяционный поиск для почти равномерных сеток: на равномерной сетке находит интервал
+    // за одну пробу, а если очередная проба сузила диапазон меньше чем вдвое, следующий шаг
+    // делается делением пополам, поэтому в худшем случае время остается O(log n)
+    static int interpolationSearch(double[] xs, int count, double x) {
+        int lo = 0;
+        int hi = count - 1;
+        if (!(x > xs[lo])) {
+            return 0;
+        }
+        if (x >= xs[hi]) {
+            return count - 2;
+        }
+
+        boolean bisect = false;
+        while (hi - lo > 1) {
+            int mid;
+            if (bisect) {
+                mid = (lo + hi) >>> 1;
+            } else {
+                mid = lo + (int) ((x - xs[lo]) / (xs[hi] - xs[lo]) * (hi - lo));
+                if (mid <= lo) {
+                    mid = lo + 1;
+                } else if (mid >= hi) {
+                    mid = hi - 1;
+                }
+            }
+
+            int width = hi - lo;
+            if (xs[mid] <= x) {
+                // проверяем соседний узел, чтобы сразу выйти при точном попадании
+                if (x < xs[mid + 1]) {
+                    return mid;
+                }
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+            bisect = !bisect && (hi - lo) * 2 > width;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,337 @@
+package functions;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+// потоковый разбор и форматирование текстового представления табулированной ф-ции:
+// "count x0 y0 x1 y1 ...", числа в формате Double.toString
+final class TabulatedTextFormat {
+    private static final int BUFFER_SIZE = 1 << 13;
+    // 19 десятичных цифр помещаются в long без знака
+    private static final int MAX_MANTISSA_DIGITS = 19;
+    // предел точного представления целых в double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    // степени десяти, точно представимые в double
+    private static final double[] EXACT_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private TabulatedTextFormat() {}
+
+    // запись ф-ции; вывод совпадает с прежним PrintWriter, но без промежуточных строк
+    static void write(TabulatedFunction function, Writer out) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        // StringBuilder.append(double) форматирует так же, как Double.toString, но без создания строки
+        StringBuilder number = new StringBuilder(32);
+        int count = function.getPointsCount();
+        int position = 0;
+
+        number.append(count).append(' ');
+        position = flushNumber(number, buffer, position, out);
+
+        for (int i = 0; i < count; i++) {
+            number.append(function.getPointX(i)).append(' ').append(function.getPointY(i));
+            if (i < count - 1) {
+                number.append(' ');
+            }
+            position = flushNumber(number, buffer, position, out);
+        }
+
+        out.write(buffer, 0, position);
+        out.flush();
+    }
+
+    // переносит накопленный текст в буфер, при переполнении сбрасывает буфер в поток
+    private static int flushNumber(StringBuilder number, char[] buffer, int position, Writer out) throws IOException {
+        int length = number.length();
+        if (position + length > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        number.getChars(0, length, buffer, position);
+        number.setLength(0);
+        return position + length;
+    }
+
+    // сканер чисел, разделенных пробельными символами
+    static final class Scanner {
+        private final Reader in;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        // текущая лексема копируется сюда, т.к. может пересекать границу буфера
+        private char[] token = new char[64];
+        private int tokenLength;
+        private double value;
+
+        Scanner(Reader in) {
+            this.in = in;
+        }
+
+        // значение последнего прочитанного числа
+        double value() {
+            return value;
+        }
+
+        // читает следующую лексему; false, если поток кончился или лексема не число
+        boolean nextNumber() throws IOException {
+            return nextToken() && parseToken();
+        }
+
+        private boolean nextToken() throws IOException {
+            tokenLength = 0;
+            // пропускаем разделители
+            while (true) {
+                if (position == limit && !fill()) {
+                    return false;
+                }
+                if (!Character.isWhitespace(buffer[position])) {
+                    break;
+                }
+                position++;
+            }
+            // копируем лексему до разделителя или конца потока
+            while (true) {
+                if (position == limit && !fill()) {
+                    return true;
+                }
+                char c = buffer[position];
+                if (Character.isWhitespace(c)) {
+                    return true;
+                }
+                if (tokenLength == token.length) {
+                    token = Arrays.copyOf(token, token.length * 2);
+                }
+                token[tokenLength++] = c;
+                position++;
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                position = limit = 0;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+
+        private boolean parseToken() {
+            int i = 0;
+            boolean negative = false;
+            if (token[i] == '-' || token[i] == '+') {
+                negative = token[i] == '-';
+                i++;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean anyDigits = false;
+            // отброшены ненулевые цифры сверх 19 - нужен точный медленный разбор
+            boolean truncated = false;
+
+            // целая часть
+            for (; i < tokenLength && isDigit(token[i]); i++) {
+                anyDigits = true;
+                int d = token[i] - '0';
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    if (mantissa != 0 || d != 0) {
+                        mantissa = mantissa * 10 + d;
+                        digits++;
+                    }
+                } else {
+                    exponent++;
+                    truncated |= d != 0;
+                }
+            }
+            // дробная часть
+            if (i < tokenLength && token[i] == '.') {
+                for (i++; i < tokenLength && isDigit(token[i]); i++) {
+                    anyDigits = true;
+                    int d = token[i] - '0';
+                    if (digits < MAX_MANTISSA_DIGITS) {
+                        if (mantissa != 0 || d != 0) {
+                            mantissa = mantissa * 10 + d;
+                            digits++;
+                        }
+                        exponent--;
+                    } else {
+                        truncated |= d != 0;
+                    }
+                }
+            }
+            if (!anyDigits) {
+                return parseSpecial(i, negative);
+            }
+            // порядок
+            if (i < tokenLength && (token[i] == 'e' || token[i] == 'E')) {
+                i++;
+                boolean negativeExponent = false;
+                if (i < tokenLength && (token[i] == '-' || token[i] == '+')) {
+                    negativeExponent = token[i] == '-';
+                    i++;
+                }
+                if (i == tokenLength || !isDigit(token[i])) {
+                    return false;
+                }
+                int e = 0;
+                for (; i < tokenLength && isDigit(token[i]); i++) {
+                    // дальше порядок все равно дает ноль или бесконечность
+                    if (e < 100000) {
+                        e = e * 10 + (token[i] - '0');
+                    }
+                }
+                exponent += negativeExponent ? -e : e;
+            }
+            if (i != tokenLength) {
+                return false;
+            }
+
+            if (mantissa == 0) {
+                value = negative ? -0.0 : 0.0;
+                return true;
+            }
+            if (!truncated && toDouble(mantissa, exponent, negative)) {
+                return true;
+            }
+            // редкий случай: строка создается только здесь
+            value = Double.parseDouble(new String(token, 0, tokenLength));
+            return true;
+        }
+
+        private boolean parseSpecial(int i, boolean negative) {
+            if (matches(i, "Infinity")) {
+                value = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                return true;
+            }
+            if (i == 0 && matches(i, "NaN")) {
+                value = Double.NaN;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean matches(int from, String word) {
+            if (tokenLength - from != word.length()) {
+                return false;
+            }
+            for (int j = 0; j < word.length(); j++) {
+                if (token[from + j] != word.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        // mantissa (без знака) * 10^exponent с корректным округлением; false, если быстрые способы не справились
+        private boolean toDouble(long mantissa, int exponent, boolean negative) {
+            // оба множителя точны, значит одно умножение или деление округляется корректно
+            if (Long.compareUnsigned(mantissa, MAX_EXACT_MANTISSA) < 0 && exponent >= -22 && exponent <= 22) {
+                double result = mantissa;
+                result = exponent < 0 ? result / EXACT_POWERS[-exponent] : result * EXACT_POWERS[exponent];
+                value = negative ? -result : result;
+                return true;
+            }
+            return eiselLemire(mantissa, exponent, negative);
+        }
+
+        // алгоритм Эйселя-Лемира: 128-битное приближение степени десяти,
+        // отказ в неоднозначных случаях (полуцелое, субнормальные числа, переполнение)
+        private boolean eiselLemire(long mantissa, int exponent, boolean negative) {
+            if (exponent < Powers.MIN_EXPONENT || exponent > Powers.MAX_EXPONENT) {
+                return false;
+            }
+            int index = 2 * (exponent - Powers.MIN_EXPONENT);
+            long powerHi = Powers.TABLE[index];
+            long powerLo = Powers.TABLE[index + 1];
+
+            int shift = Long.numberOfLeadingZeros(mantissa);
+            long m = mantissa << shift;
+            long resultExponent = ((217706L * exponent) >> 16) + 64 + 1023 - shift;
+
+            long xHi = unsignedMultiplyHigh(m, powerHi);
+            long xLo = m * powerHi;
+            // младших бит приближения может не хватить - уточняем второй половиной степени
+            if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + m, m) < 0) {
+                long yHi = unsignedMultiplyHigh(m, powerLo);
+                long yLo = m * powerLo;
+                long mergedHi = xHi;
+                long mergedLo = xLo + yHi;
+                if (Long.compareUnsigned(mergedLo, xLo) < 0) {
+                    mergedHi++;
+                }
+                if ((mergedHi & 0x1FF) == 0x1FF && mergedLo == -1L && Long.compareUnsigned(yLo + m, m) < 0) {
+                    return false;
+                }
+                xHi = mergedHi;
+                xLo = mergedLo;
+            }
+
+            int msb = (int) (xHi >>> 63);
+            long result = xHi >>> (msb + 9);
+            resultExponent -= 1 ^ msb;
+
+            // ровно посередине между двумя double - решает точный разбор
+            if (xLo == 0 && (xHi & 0x1FF) == 0 && (result & 3) == 1) {
+                return false;
+            }
+            result += result & 1;
+            result >>>= 1;
+            if ((result >>> 53) > 0) {
+                result >>>= 1;
+                resultExponent++;
+            }
+            if (resultExponent < 1 || resultExponent >= 0x7FF) {
+                return false;
+            }
+
+            long bits = (resultExponent << 52) | (result & 0x000FFFFFFFFFFFFFL);
+            if (negative) {
+                bits |= Long.MIN_VALUE;
+            }
+            value = Double.longBitsToDouble(bits);
+            return true;
+        }
+
+        private static long unsignedMultiplyHigh(long a, long b) {
+            return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+        }
+    }
+
+    // нормализованные 128-битные приближения 10^q снизу, строятся при первом обращении
+    private static final class Powers {
+        static final int MIN_EXPONENT = -342;
+        static final int MAX_EXPONENT = 308;
+        // пары (старшие, младшие) 64 бита
+        static final long[] TABLE = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+
+        static {
+            BigInteger ten = BigInteger.TEN;
+            for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+                BigInteger power = ten.pow(Math.abs(q));
+                BigInteger approximation;
+                if (q >= 0) {
+                    int excess = power.bitLength() - 128;
+                    approximation = excess > 0 ? power.shiftRight(excess) : power.shiftLeft(-excess);
+                } else {
+                    // 2^k / 10^|q| лежит в [2^127, 2^128)
+                    approximation = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power);
+                }
+                int index = 2 * (q - MIN_EXPONENT);
+                TABLE[index] = approximation.shiftRight(64).longValue();
+                TABLE[index + 1] = approximation.longValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package functions;
+
+import java.io.*;
+
+// табулированная ф-ция на равномерной сетке: хранит только левую границу, шаг и значения,
+// абсциссы вычисляются как leftX + step * i, а интервал для интерполяции находится за O(1)
+public class UniformGridTabulatedFunction implements TabulatedFunction, Externalizable {
+    private double leftX;
+    private double step;
+    private double[] ys;
+    private int pointsCount;
+    // явное представление, в которое ф-ция переходит после изменения абсцисс
+    private ArrayTabulatedFunction explicit;
+    private static final double EPSILON = 1e-10;
+
+    // создает табулированную ф-цию с нулевыми значениями
+    public UniformGridTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)]);
+    }
+
+    // создает табулированную ф-цию с заданными значениями в точках
+    public UniformGridTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX - EPSILON) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой");
+        }
+        checkPointsCount(values.length);
+
+        this.leftX = leftX;
+        this.step = (rightX - leftX) / (values.length - 1);
+        this.ys = values.clone();
+        this.pointsCount = values.length;
+    }
+
+    // Конструктор без параметров для Externalizable
+    public UniformGridTabulatedFunction() {
+    }
+
+    // создает ф-цию, забирая массив значений без копирования
+    static UniformGridTabulatedFunction ofValues(double leftX, double rightX, double[] values) {
+        UniformGridTabulatedFunction function = new UniformGridTabulatedFunction();
+        function.leftX = leftX;
+        function.step = (rightX - leftX) / (values.length - 1);
+        function.ys = values;
+        function.pointsCount = values.length;
+        return function;
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        return pointsCount;
+    }
+
+    // true, пока абсциссы не менялись и сетка остается равномерной
+    public boolean isUniform() {
+        return explicit == null;
+    }
+
+    // переход к явному хранению абсцисс
+    private ArrayTabulatedFunction toExplicit() {
+        if (explicit == null) {
+            double[] xs = new double[ys.length + 3];
+            double[] newYs = new double[ys.length + 3];
+            for (int i = 0; i < pointsCount; i++) {
+                xs[i] = leftX + step * i;
+            }
+            System.arraycopy(ys, 0, newYs, 0, pointsCount);
+            explicit = new ArrayTabulatedFunction(xs, newYs, pointsCount);
+            ys = null;
+        }
+        return explicit;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " выходит за границы [0, " + (pointsCount - 1) + "]");
+        }
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeBoolean(explicit == null);
+        // явная сетка сериализуется через ArrayTabulatedFunction и отмечается его событием
+        if (explicit == null) {
+            FunctionEvents.Serialization event = new FunctionEvents.Serialization("write", UniformGridTabulatedFunction.class);
+            event.begin();
+            out.writeDouble(leftX);
+            out.writeDouble(step);
+            out.writeInt(pointsCount);
+            for (int i = 0; i < pointsCount; i++) {
+                out.writeDouble(ys[i]);
+            }
+            event.end(pointsCount);
+        } else {
+            explicit.writeExternal(out);
+        }
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        if (in.readBoolean()) {
+            FunctionEvents.Serialization event = new FunctionEvents.Serialization("read", UniformGridTabulatedFunction.class);
+            event.begin();
+            leftX = in.readDouble();
+            step = in.readDouble();
+            pointsCount = in.readInt();
+            ys = new double[pointsCount];
+            for (int i = 0; i < pointsCount; i++) {
+                ys[i] = in.readDouble();
+            }
+            explicit = null;
+            event.end(pointsCount);
+        } else {
+            explicit = new ArrayTabulatedFunction();
+            explicit.readExternal(in);
+            pointsCount = explicit.getPointsCount();
+            ys = null;
+        }
+    }
+
+    public double getLeftDomainBorder() {
+        if (explicit != null) {
+            return explicit.getLeftDomainBorder();
+        }
+        return leftX;
+    }
+
+    public double getRightDomainBorder() {
+        if (explicit != null) {
+            return explicit.getRightDomainBorder();
+        }
+        return leftX + step * (pointsCount - 1);
+    }
+
+    // вычисляет значение ф-ции в заданной точке
+    public double getFunctionValue(double x) {
+        if (explicit != null) {
+            return explicit.getFunctionValue(x);
+        }
+        return valueOnGrid(leftX, step, ys, pointsCount, x);
+    }
+
+    // значение ф-ции, заданной значениями ys на сетке leftX + step * i, в точке x
+    static double valueOnGrid(double leftX, double step, double[] ys, int pointsCount, double x) {
+        if (x < leftX - EPSILON || x > leftX + step * (pointsCount - 1) + EPSILON) {
+            return Double.NaN;
+        }
+
+        // индекс интервала вычисляется арифметически и поправляется на ошибку округления
+        int i = (int) ((x - leftX) / step);
+        if (i < 0) {
+            i = 0;
+        } else if (i > pointsCount - 2) {
+            i = pointsCount - 2;
+        }
+        if (i > 0 && x < leftX + step * i) {
+            i--;
+        } else if (i < pointsCount - 2 && x >= leftX + step * (i + 1)) {
+            i++;
+        }
+
+        double x1 = leftX + step * i;
+        double x2 = leftX + step * (i + 1);
+
+        // совпасть с x могут только концы найденного интервала
+        if (Math.abs(x1 - x) < EPSILON) {
+            return ys[i];
+        }
+        if (Math.abs(x2 - x) < EPSILON) {
+            return ys[i + 1];
+        }
+
+        double y1 = ys[i];
+        double y2 = ys[i + 1];
+        return ((x - x1) * (y2 - y1)) / (x2 - x1) + y1;
+    }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        if (explicit != null) {
+            explicit.evaluate(xs, out, from, to);
+            return;
+        }
+        BatchKernels.get().interpolateUniform(leftX, step, ys, pointsCount, xs, out, from, to);
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) {
+            return explicit.getPoint(index);
+        }
+        checkIndex(index);
+        return new FunctionPoint(leftX + step * index, ys[index]);
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        // если абсцисса не меняется, сетка остается равномерной; недопустимая абсцисса
+        // отклоняется до перехода к явному хранению
+        if (explicit == null) {
+            checkIndex(index);
+            double x = point.getX();
+            if (x == leftX + step * index) {
+                ys[index] = point.getY();
+                return;
+            }
+            if (index > 0 && x <= leftX + step * (index - 1) + EPSILON) {
+                throw new InappropriateFunctionPointException("Новая координата X должна быть больше X предыдущей точки");
+            }
+            if (index < pointsCount - 1 && x >= leftX + step * (index + 1) - EPSILON) {
+                throw new InappropriateFunctionPointException("Новая координата X должна быть меньше X следующей точки");
+            }
+        }
+        toExplicit().setPoint(index, point);
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) {
+            return explicit.getPointX(index);
+        }
+        checkIndex(index);
+        return leftX + step * index;
+    }
+
+    public void setPointX(int index, double x) throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        setPoint(index, new FunctionPoint(x, getPointY(index)));
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) {
+            return explicit.getPointY(index);
+        }
+        checkIndex(index);
+        return ys[index];
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) {
+            explicit.setPointY(index, y);
+            return;
+        }
+        checkIndex(index);
+        ys[index] = y;
+    }
+
+    public void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit == null) {
+            checkIndex(index);
+            if (pointsCount <= 2) {
+                throw new IllegalStateException("Невозможно удалить точку - функция должна иметь как минимум 2 точки");
+            }
+            // удаление последней точки не нарушает равномерность сетки
+            if (index == pointsCount - 1) {
+                pointsCount--;
+                return;
+            }
+        }
+        ArrayTabulatedFunction target = toExplicit();
+        target.deletePoint(index);
+        pointsCount = target.getPointsCount();
+    }
+
+    // при отклоненной точке сетка остается равномерной
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (explicit == null) {
+            checkNotOnGrid(point.getX());
+        }
+        ArrayTabulatedFunction target = toExplicit();
+        target.addPoint(point);
+        pointsCount = target.getPointsCount();
+    }
+
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        addPoints(PointBatch.of(points));
+    }
+
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        addPoints(PointBatch.of(xs, ys));
+    }
+
+    // при отклоненном наборе сетка остается равномерной
+    private void addPoints(PointBatch batch) throws InappropriateFunctionPointException {
+        if (batch.count == 0) {
+            return;
+        }
+        if (explicit == null) {
+            for (int i = 0; i < batch.count; i++) {
+                checkNotOnGrid(batch.xs[i]);
+            }
+        }
+        ArrayTabulatedFunction target = toExplicit();
+        target.addPoints(batch);
+        pointsCount = target.getPointsCount();
+    }
+
+    // ближайший к x узел сетки находится арифметически, без перебора точек
+    private void checkNotOnGrid(double x) throws InappropriateFunctionPointException {
+        if (x >= leftX - EPSILON && x <= leftX + step * (pointsCount - 1) + EPSILON) {
+            int k = (int) Math.round((x - leftX) / step);
+            k = Math.max(0, Math.min(pointsCount - 1, k));
+            if (Math.abs(leftX + step * k - x) < EPSILON) {
+                throw PointBatch.duplicate(x);
+            }
+        }
+    }
+}
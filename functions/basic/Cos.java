@@ -1,8 +1,15 @@
 package functions.basic;
 
+import functions.BatchKernels;
+
 public class Cos extends TrigonometricFunction {
 
     public double getFunctionValue(double x) {
         return Math.cos(x);
     }
+
+    // пакетное вычисление, векторизованное при наличии jdk.incubator.vector
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        BatchKernels.get().cos(xs, out, from, to);
+    }
 }
\ No newline at end of file
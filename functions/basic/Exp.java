@@ -1,5 +1,6 @@
 package functions.basic;
 
+import functions.BatchKernels;
 import functions.Function;
 
 public class Exp implements Function {
@@ -9,6 +10,11 @@ public class Exp implements Function {
         return Math.exp(x);
     }
 
+    // пакетное вычисление, векторизованное при наличии jdk.incubator.vector
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        BatchKernels.get().exp(xs, out, from, to);
+    }
+
     // возвращает левую границу
     public double getLeftDomainBorder() {
         return Double.NEGATIVE_INFINITY;
@@ -0,0 +1,20 @@
+package functions.basic;
+
+// быстрый косинус с заданной точностью: табличное сведение аргумента и короткий многочлен.
+// абсолютная погрешность не больше getErrorBound() при |x| <= 1e5, дальше используется Math.cos
+public class FastCos extends TrigonometricFunction {
+    private final int level;
+
+    // самый быстрый вариант с абсолютной погрешностью не больше accuracy (не меньше 2e-15)
+    public FastCos(double accuracy) {
+        level = FastKernels.level(FastKernels.TRIG_BOUNDS, accuracy);
+    }
+
+    public double getErrorBound() {
+        return FastKernels.TRIG_BOUNDS[level];
+    }
+
+    public double getFunctionValue(double x) {
+        return FastKernels.cos(x, level);
+    }
+}
@@ -0,0 +1,31 @@
+package functions.basic;
+
+import functions.Function;
+
+// быстрая экспонента с заданной точностью: x = k * ln2/32 + r, 2^(k/32) из таблицы, e^r -
+// коротким многочленом. относительная погрешность не больше getErrorBound() при -708 < x < 709,
+// вне этого интервала (переполнение, денормализованные результаты) используется Math.exp
+public class FastExp implements Function {
+    private final int level;
+
+    // самый быстрый вариант с относительной погрешностью не больше accuracy (не меньше 1e-15)
+    public FastExp(double accuracy) {
+        level = FastKernels.level(FastKernels.EXP_BOUNDS, accuracy);
+    }
+
+    public double getErrorBound() {
+        return FastKernels.EXP_BOUNDS[level];
+    }
+
+    public double getFunctionValue(double x) {
+        return FastKernels.exp(x, level);
+    }
+
+    public double getLeftDomainBorder() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    public double getRightDomainBorder() {
+        return Double.POSITIVE_INFINITY;
+    }
+}
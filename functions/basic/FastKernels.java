@@ -0,0 +1,202 @@
+package functions.basic;
+
+// табличные приближения sin, cos, exp и ln для Fast-ф-ций. аргумент сводится к малому
+// остатку r относительно ближайшего узла таблицы, значение в узле берется из таблицы,
+// а поправка на r считается коротким многочленом. уровень 0 - самые короткие многочлены с
+// погрешностью не больше 1e-7, уровень 2 - погрешность порядка округлений. границы
+// погрешностей в *_BOUNDS получены оценкой остаточного члена с запасом на округления
+// и проверены сравнением с Math
+final class FastKernels {
+    static final int LEVELS = 3;
+
+    // абсолютная погрешность sin и cos
+    static final double[] TRIG_BOUNDS = {3e-9, 3e-11, 2e-15};
+    // относительная погрешность exp
+    static final double[] EXP_BOUNDS = {1e-9, 2e-12, 1e-15};
+    // погрешность ln x относительно max(1, |ln x|)
+    static final double[] LOG_BOUNDS = {2e-8, 3e-12, 1e-15};
+
+    // округление к ближайшему целому прибавлением 1.5 * 2^52, целое - в младших битах
+    private static final double ROUND_MAGIC = 0x1.8p52;
+
+    // sin, cos: x = k * pi/32 + r, |r| <= pi/64; sin(k * pi/32) - из таблицы
+    private static final double TRIG_INV_STEP = 32 / Math.PI;
+    // pi/32 = STEP_HI + STEP_MID + STEP_LO; у STEP_HI 32 значащих бита, поэтому k * STEP_HI
+    // точно при |k| < 2^21; STEP_LO - ошибка Math.PI / 32
+    private static final double TRIG_STEP_HI = Double.longBitsToDouble(Double.doubleToRawLongBits(Math.PI / 32) & ~((1L << 21) - 1));
+    private static final double TRIG_STEP_MID = Math.PI / 32 - TRIG_STEP_HI;
+    private static final double TRIG_STEP_LO = 1.2246467991473532e-16 / 32;
+    // при больших |x| сведение теряет точность, такие аргументы передаются Math
+    static final double TRIG_MAX = 1e5;
+    private static final double[] SIN_TABLE = new double[64];
+
+    // exp: x = (32 m + j) * ln2/32 + r, |r| <= ln2/64; 2^(j/32) - из таблицы
+    private static final double EXP_INV_STEP = 32 / Math.log(2);
+    // ln2/32 = STEP_HI + STEP_LO, младшие 21 бит STEP_HI нулевые (как ln2_hi в fdlibm)
+    private static final double EXP_STEP_HI = 6.93147180369123816490e-01 / 32;
+    private static final double EXP_STEP_LO = 1.90821492927058770002e-10 / 32;
+    // вне этого интервала результат переполняется или становится денормализованным
+    private static final double EXP_MIN = -708;
+    private static final double EXP_MAX = 709;
+    private static final double[] EXP_TABLE = new double[32];
+
+    // ln: x = 2^e * c_j * (1 + r), c_j = 1 + j/64, 0 <= r < 1/64; ln c_j - из таблицы
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double[] LOG_TABLE = new double[64];
+    private static final double[] LOG_INV = new double[64];
+
+    static {
+        for (int j = 0; j < 64; j++) {
+            SIN_TABLE[j] = Math.sin(j * Math.PI / 32);
+            LOG_TABLE[j] = Math.log1p(j / 64.0);
+            LOG_INV[j] = 1 / (1 + j / 64.0);
+        }
+        // точные значения в узлах, где Math.sin(j * pi/32) дает остаток округления pi
+        SIN_TABLE[0] = 0;
+        SIN_TABLE[16] = 1;
+        SIN_TABLE[32] = 0;
+        SIN_TABLE[48] = -1;
+        for (int j = 0; j < 32; j++) {
+            EXP_TABLE[j] = Math.pow(2, j / 32.0);
+        }
+    }
+
+    private FastKernels() {}
+
+    // наименьший уровень, граница погрешности которого не больше accuracy
+    static int level(double[] bounds, double accuracy) {
+        for (int level = 0; level < LEVELS; level++) {
+            if (bounds[level] <= accuracy) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("Точность " + accuracy + " недостижима, наилучшая - " + bounds[LEVELS - 1]);
+    }
+
+    static double sin(double x, int level) {
+        if (!(Math.abs(x) <= TRIG_MAX)) {
+            return Math.sin(x);
+        }
+        double shifted = x * TRIG_INV_STEP + ROUND_MAGIC;
+        double k = shifted - ROUND_MAGIC;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 63;
+        double r = reduce(x, k);
+        double s = SIN_TABLE[j];
+        double c = SIN_TABLE[(j + 16) & 63];
+        // sin(a + r) = sin a + (sin a * (cos r - 1) + cos a * sin r)
+        return s + (s * cosMinusOne(r, level) + c * sinPoly(r, level));
+    }
+
+    static double cos(double x, int level) {
+        if (!(Math.abs(x) <= TRIG_MAX)) {
+            return Math.cos(x);
+        }
+        double shifted = x * TRIG_INV_STEP + ROUND_MAGIC;
+        double k = shifted - ROUND_MAGIC;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 63;
+        double r = reduce(x, k);
+        double s = SIN_TABLE[j];
+        double c = SIN_TABLE[(j + 16) & 63];
+        // cos(a + r) = cos a + (cos a * (cos r - 1) - sin a * sin r)
+        return c + (c * cosMinusOne(r, level) - s * sinPoly(r, level));
+    }
+
+    // tan как отношение приближений sin и cos с общим сведением аргумента;
+    // NaN там же, где у Tan: при |cos x| < 1e-10
+    static double tan(double x, int level) {
+        if (!(Math.abs(x) <= TRIG_MAX)) {
+            return Tan.valueOf(x);
+        }
+        double shifted = x * TRIG_INV_STEP + ROUND_MAGIC;
+        double k = shifted - ROUND_MAGIC;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 63;
+        double r = reduce(x, k);
+        double s = SIN_TABLE[j];
+        double c = SIN_TABLE[(j + 16) & 63];
+        double cm1 = cosMinusOne(r, level);
+        double sr = sinPoly(r, level);
+        double cosX = c + (c * cm1 - s * sr);
+        if (Math.abs(cosX) < 1e-10) {
+            return Double.NaN; // точка разрыва
+        }
+        return (s + (s * cm1 + c * sr)) / cosX;
+    }
+
+    private static double reduce(double x, double k) {
+        return ((x - k * TRIG_STEP_HI) - k * TRIG_STEP_MID) - k * TRIG_STEP_LO;
+    }
+
+    // ряд Тейлора sin r до r^3, r^5 или r^7; остаток при |r| <= pi/64 не больше 2.4e-9, 1.4e-13, 5e-18
+    private static double sinPoly(double r, int level) {
+        double r2 = r * r;
+        if (level == 0) {
+            return r - r * r2 * (1.0 / 6);
+        }
+        if (level == 1) {
+            return r + r * r2 * (-1.0 / 6 + r2 * (1.0 / 120));
+        }
+        return r + r * r2 * (-1.0 / 6 + r2 * (1.0 / 120 + r2 * (-1.0 / 5040)));
+    }
+
+    // ряд Тейлора cos r - 1 до r^4 или r^6; остаток не больше 2e-11 и 8.3e-16.
+    // на уровне 0 обрывать на r^2 нельзя: остаток 2.5e-7 больше 1e-7
+    private static double cosMinusOne(double r, int level) {
+        double r2 = r * r;
+        if (level < 2) {
+            return r2 * (-0.5 + r2 * (1.0 / 24));
+        }
+        return r2 * (-0.5 + r2 * (1.0 / 24 + r2 * (-1.0 / 720)));
+    }
+
+    static double exp(double x, int level) {
+        if (!(x > EXP_MIN && x < EXP_MAX)) {
+            return Math.exp(x);
+        }
+        double shifted = x * EXP_INV_STEP + ROUND_MAGIC;
+        double n = shifted - ROUND_MAGIC;
+        int bits = (int) Double.doubleToRawLongBits(shifted);
+        double r = (x - n * EXP_STEP_HI) - n * EXP_STEP_LO;
+        double scale = Double.longBitsToDouble((long) ((bits >> 5) + 1023) << 52);
+        double t = EXP_TABLE[bits & 31];
+        return scale * (t + t * expMinusOne(r, level));
+    }
+
+    // ряд Тейлора e^r - 1 до r^3, r^4 или r^6; остаток при |r| <= ln2/64 не больше 5.8e-10, 1.3e-12, 3.5e-18
+    private static double expMinusOne(double r, int level) {
+        if (level == 0) {
+            return r + r * r * (0.5 + r * (1.0 / 6));
+        }
+        if (level == 1) {
+            return r + r * r * (0.5 + r * (1.0 / 6 + r * (1.0 / 24)));
+        }
+        return r + r * r * (0.5 + r * (1.0 / 6 + r * (1.0 / 24 + r * (1.0 / 120 + r * (1.0 / 720)))));
+    }
+
+    // натуральный логарифм; для x <= 0 - NaN, как у Log
+    static double ln(double x, int level) {
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return x <= 0 ? Double.NaN : Math.log(x);
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        int e = (int) (bits >>> 52) - 1023;
+        int j = (int) (bits >>> 46) & 63;
+        double m = Double.longBitsToDouble((bits & 0x000FFFFFFFFFFFFFL) | 0x3FF0000000000000L);
+        // m - c_j вычисляется точно
+        double r = (m - (1 + j / 64.0)) * LOG_INV[j];
+        return (e * LN2_HI + LOG_TABLE[j]) + (log1p(r, level) + e * LN2_LO);
+    }
+
+    // ряд ln(1 + r) до r^3, r^5 или r^7; знакочередующийся, остаток при 0 <= r < 1/64
+    // не больше первого отброшенного члена: 1.5e-8, 2.4e-12, 4.4e-16
+    private static double log1p(double r, int level) {
+        double r2 = r * r;
+        if (level == 0) {
+            return r + r2 * (-0.5 + r * (1.0 / 3));
+        }
+        if (level == 1) {
+            return r + r2 * (-0.5 + r * (1.0 / 3 + r * (-0.25 + r * 0.2)));
+        }
+        return r + r2 * (-0.5 + r * (1.0 / 3 + r * (-0.25 + r * (0.2 + r * (-1.0 / 6 + r * (1.0 / 7))))));
+    }
+}
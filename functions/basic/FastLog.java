@@ -0,0 +1,43 @@
+package functions.basic;
+
+import functions.Function;
+
+// быстрый логарифм с заданной точностью: x = 2^e * c * (1 + r), ln c из таблицы, ln(1 + r) -
+// коротким многочленом. погрешность ln x не больше getErrorBound() * max(1, |ln x|),
+// погрешность результата - та же величина, деленная на |ln base|
+public class FastLog implements Function {
+    private final double base;
+    // деление заменено умножением, это добавляет к погрешности не больше округления
+    private final double inverseLnBase;
+    private final int level;
+
+    // самый быстрый вариант с погрешностью ln x не больше accuracy (не меньше 1e-15)
+    public FastLog(double base, double accuracy) {
+        if (base <= 0 || Math.abs(base - 1) < 1e-10) {
+            throw new IllegalArgumentException("Основание логарифма должно быть положительным и не равным 1");
+        }
+        this.base = base;
+        this.inverseLnBase = 1 / Math.log(base);
+        this.level = FastKernels.level(FastKernels.LOG_BOUNDS, accuracy);
+    }
+
+    public double getBase() {
+        return base;
+    }
+
+    public double getErrorBound() {
+        return FastKernels.LOG_BOUNDS[level];
+    }
+
+    public double getLeftDomainBorder() {
+        return 0;
+    }
+
+    public double getRightDomainBorder() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    public double getFunctionValue(double x) {
+        return FastKernels.ln(x, level) * inverseLnBase;
+    }
+}
@@ -0,0 +1,20 @@
+package functions.basic;
+
+// быстрый синус с заданной точностью: табличное сведение аргумента и короткий многочлен.
+// абсолютная погрешность не больше getErrorBound() при |x| <= 1e5, дальше используется Math.sin
+public class FastSin extends TrigonometricFunction {
+    private final int level;
+
+    // самый быстрый вариант с абсолютной погрешностью не больше accuracy (не меньше 2e-15)
+    public FastSin(double accuracy) {
+        level = FastKernels.level(FastKernels.TRIG_BOUNDS, accuracy);
+    }
+
+    public double getErrorBound() {
+        return FastKernels.TRIG_BOUNDS[level];
+    }
+
+    public double getFunctionValue(double x) {
+        return FastKernels.sin(x, level);
+    }
+}
@@ -0,0 +1,21 @@
+package functions.basic;
+
+// быстрый тангенс как отношение приближений синуса и косинуса с общим сведением аргумента.
+// погрешности sin и cos не больше e = getErrorBound(), поэтому абсолютная погрешность tan x
+// не больше 1.5 * e * (1 + tan^2 x) при |x| <= 1e5; в точках разрыва NaN, как у Tan
+public class FastTan extends TrigonometricFunction {
+    private final int level;
+
+    // самый быстрый вариант с погрешностью sin и cos не больше accuracy (не меньше 2e-15)
+    public FastTan(double accuracy) {
+        level = FastKernels.level(FastKernels.TRIG_BOUNDS, accuracy);
+    }
+
+    public double getErrorBound() {
+        return FastKernels.TRIG_BOUNDS[level];
+    }
+
+    public double getFunctionValue(double x) {
+        return FastKernels.tan(x, level);
+    }
+}
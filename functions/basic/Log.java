@@ -1,15 +1,23 @@
 package functions.basic;
 
+import functions.BatchKernels;
 import functions.Function;
 
 public class Log implements Function {
     private double base;
+    // натуральный логарифм основания вычисляется один раз
+    private double lnBase;
 
     public Log(double base) {
         if (base <= 0 || Math.abs(base - 1) < 1e-10) {
             throw new IllegalArgumentException("Основание логарифма должно быть положительным и не равным 1");
         }
         this.base = base;
+        this.lnBase = Math.log(base);
+    }
+
+    public double getBase() {
+        return base;
     }
 
     public double getLeftDomainBorder() {
@@ -24,6 +32,11 @@ public class Log implements Function {
         if (x <= 0) {
             return Double.NaN;
         }
-        return Math.log(x) / Math.log(base);
+        return Math.log(x) / lnBase;
+    }
+
+    // пакетное вычисление, векторизованное при наличии jdk.incubator.vector
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        BatchKernels.get().log(xs, out, from, to, lnBase);
     }
 }
\ No newline at end of file
@@ -1,8 +1,15 @@
 package functions.basic;
 
+import functions.BatchKernels;
+
 public class Sin extends TrigonometricFunction {
 
     public double getFunctionValue(double x) {
         return Math.sin(x);
     }
+
+    // пакетное вычисление, векторизованное при наличии jdk.incubator.vector
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        BatchKernels.get().sin(xs, out, from, to);
+    }
 }
\ No newline at end of file
@@ -1,12 +1,25 @@
 package functions.basic;
 
+import functions.BatchKernels;
+
 public class Tan extends TrigonometricFunction {
 
+    // |cos x| < 1e-10 равносильно |tan x| > 1e10, так как cos^2 x = 1 / (1 + tan^2 x),
+    // поэтому точка разрыва определяется по самому тангенсу без вычисления косинуса
     public double getFunctionValue(double x) {
-        double cosX = Math.cos(x);
-        if (Math.abs(cosX) < 1e-10) {
+        return valueOf(x);
+    }
+
+    static double valueOf(double x) {
+        double tan = Math.tan(x);
+        if (Math.abs(tan) > 1e10) {
             return Double.NaN; // точка разрыва
         }
-        return Math.tan(x);
+        return tan;
+    }
+
+    // пакетное вычисление, векторизованное при наличии jdk.incubator.vector
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        BatchKernels.get().tan(xs, out, from, to);
     }
 }
\ No newline at end of file
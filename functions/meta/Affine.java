@@ -0,0 +1,77 @@
+package functions.meta;
+
+import functions.Function;
+
+// аффинное преобразование ф-ции: scaleY * f(scaleX * x + shiftX) + shiftY,
+// заменяет цепочку из нескольких Shift и Scale одним узлом
+public class Affine implements Function {
+    private Function f;
+    private double scaleX;
+    private double shiftX;
+    private double scaleY;
+    private double shiftY;
+
+    public Affine(Function f, double scaleX, double shiftX, double scaleY, double shiftY) {
+        if (scaleX == 0) {
+            throw new IllegalArgumentException("Коэффициент масштабирования по x не может быть нулевым");
+        }
+        this.f = f;
+        this.scaleX = scaleX;
+        this.shiftX = shiftX;
+        this.scaleY = scaleY;
+        this.shiftY = shiftY;
+    }
+
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    public double getShiftX() {
+        return shiftX;
+    }
+
+    public double getScaleY() {
+        return scaleY;
+    }
+
+    public double getShiftY() {
+        return shiftY;
+    }
+
+    public double getLeftDomainBorder() {
+        // прообраз обл опр исходной ф-ции
+        if (scaleX > 0) {
+            return (f.getLeftDomainBorder() - shiftX) / scaleX;
+        } else {
+            return (f.getRightDomainBorder() - shiftX) / scaleX;
+        }
+    }
+
+    public double getRightDomainBorder() {
+        if (scaleX > 0) {
+            return (f.getRightDomainBorder() - shiftX) / scaleX;
+        } else {
+            return (f.getLeftDomainBorder() - shiftX) / scaleX;
+        }
+    }
+
+    public double getFunctionValue(double x) {
+        return scaleY * f.getFunctionValue(scaleX * x + shiftX) + shiftY;
+    }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // преобразуем все аргументы, считаем значения и преобразуем их
+        double[] values = new double[to - from];
+        for (int i = from; i < to; i++) {
+            values[i - from] = scaleX * xs[i] + shiftX;
+        }
+        f.evaluate(values, values, 0, values.length);
+        for (int i = from; i < to; i++) {
+            out[i] = scaleY * values[i - from] + shiftY;
+        }
+    }
+}
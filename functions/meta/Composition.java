@@ -11,6 +11,14 @@ public class Composition implements Function {
         this.f2 = f2;
     }
 
+    public Function getF1() {
+        return f1;
+    }
+
+    public Function getF2() {
+        return f2;
+    }
+
     public double getLeftDomainBorder() {
         // обл опр совпдает с 1ой ф-цией
         return f1.getLeftDomainBorder();
@@ -24,4 +32,10 @@ public class Composition implements Function {
         // композиция
         return f2.getFunctionValue(f1.getFunctionValue(x));
     }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // значения первой ф-ции служат аргументами второй
+        f1.evaluate(xs, out, from, to);
+        f2.evaluate(out, out, from, to);
+    }
 }
\ No newline at end of file
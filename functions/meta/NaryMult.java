@@ -0,0 +1,72 @@
+package functions.meta;
+
+import functions.Function;
+
+import java.util.Arrays;
+
+// произведение произвольного числа ф-ций и константы; заменяет вложенные Mult.
+// область определения - пересечение областей множителей, вычисляется при каждом запросе,
+// как у Mult, чтобы учитывать изменения табулированных ф-ций
+public class NaryMult implements Function {
+    private Function[] functions;
+    private double constant;
+
+    public NaryMult(Function[] functions, double constant) {
+        if (functions.length == 0) {
+            throw new IllegalArgumentException("Нужна хотя бы одна ф-ция");
+        }
+        this.functions = functions.clone();
+        this.constant = constant;
+    }
+
+    public Function[] getFunctions() {
+        return functions.clone();
+    }
+
+    public double getConstant() {
+        return constant;
+    }
+
+    public double getLeftDomainBorder() {
+        // пересечение областей опр
+        double leftBorder = Double.NEGATIVE_INFINITY;
+        for (Function f : functions) {
+            leftBorder = Math.max(leftBorder, f.getLeftDomainBorder());
+        }
+        return leftBorder;
+    }
+
+    public double getRightDomainBorder() {
+        double rightBorder = Double.POSITIVE_INFINITY;
+        for (Function f : functions) {
+            rightBorder = Math.min(rightBorder, f.getRightDomainBorder());
+        }
+        return rightBorder;
+    }
+
+    public double getFunctionValue(double x) {
+        // множители перемножаются слева направо, константа последней
+        double product = functions[0].getFunctionValue(x);
+        for (int i = 1; i < functions.length; i++) {
+            product *= functions[i].getFunctionValue(x);
+        }
+        return product * constant;
+    }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // значения множителей считаем заранее, пока out еще не перезаписал xs
+        double[][] factors = new double[functions.length - 1][];
+        for (int k = 1; k < functions.length; k++) {
+            factors[k - 1] = Arrays.copyOfRange(xs, from, to);
+            functions[k].evaluate(factors[k - 1], factors[k - 1], 0, to - from);
+        }
+        functions[0].evaluate(xs, out, from, to);
+        for (int i = from; i < to; i++) {
+            double product = out[i];
+            for (double[] factor : factors) {
+                product *= factor[i - from];
+            }
+            out[i] = product * constant;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package functions.meta;
+
+import functions.Function;
+
+import java.util.Arrays;
+
+// сумма произвольного числа ф-ций и константы; заменяет вложенные Sum.
+// область определения - пересечение областей слагаемых, вычисляется при каждом запросе,
+// как у Sum, чтобы учитывать изменения табулированных ф-ций
+public class NarySum implements Function {
+    private Function[] functions;
+    private double constant;
+
+    public NarySum(Function[] functions, double constant) {
+        if (functions.length == 0) {
+            throw new IllegalArgumentException("Нужна хотя бы одна ф-ция");
+        }
+        this.functions = functions.clone();
+        this.constant = constant;
+    }
+
+    public Function[] getFunctions() {
+        return functions.clone();
+    }
+
+    public double getConstant() {
+        return constant;
+    }
+
+    public double getLeftDomainBorder() {
+        // пересечение областей опр
+        double leftBorder = Double.NEGATIVE_INFINITY;
+        for (Function f : functions) {
+            leftBorder = Math.max(leftBorder, f.getLeftDomainBorder());
+        }
+        return leftBorder;
+    }
+
+    public double getRightDomainBorder() {
+        double rightBorder = Double.POSITIVE_INFINITY;
+        for (Function f : functions) {
+            rightBorder = Math.min(rightBorder, f.getRightDomainBorder());
+        }
+        return rightBorder;
+    }
+
+    public double getFunctionValue(double x) {
+        // слагаемые складываются слева направо, константа последней
+        double sum = functions[0].getFunctionValue(x);
+        for (int i = 1; i < functions.length; i++) {
+            sum += functions[i].getFunctionValue(x);
+        }
+        return sum + constant;
+    }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // значения слагаемых считаем заранее, пока out еще не перезаписал xs
+        double[][] terms = new double[functions.length - 1][];
+        for (int k = 1; k < functions.length; k++) {
+            terms[k - 1] = Arrays.copyOfRange(xs, from, to);
+            functions[k].evaluate(terms[k - 1], terms[k - 1], 0, to - from);
+        }
+        functions[0].evaluate(xs, out, from, to);
+        for (int i = from; i < to; i++) {
+            double sum = out[i];
+            for (double[] term : terms) {
+                sum += term[i - from];
+            }
+            out[i] = sum + constant;
+        }
+    }
+}
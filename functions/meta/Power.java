@@ -11,6 +11,14 @@ public class Power implements Function {
         this.power = power;
     }
 
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getPower() {
+        return power;
+    }
+
     public double getLeftDomainBorder() {
         // обл опр совпадает с исх ф-цией
         return f.getLeftDomainBorder();
@@ -24,4 +32,12 @@ public class Power implements Function {
         // возведение в степень
         return Math.pow(f.getFunctionValue(x), power);
     }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // сначала все значения исходной ф-ции, затем возведение в степень
+        f.evaluate(xs, out, from, to);
+        for (int i = from; i < to; i++) {
+            out[i] = Math.pow(out[i], power);
+        }
+    }
 }
\ No newline at end of file
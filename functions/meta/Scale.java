@@ -13,6 +13,18 @@ public class Scale implements Function {
         this.scaleY = scaleY;
     }
 
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    public double getScaleY() {
+        return scaleY;
+    }
+
     public double getLeftDomainBorder() {
         // масштабирование обл опр по х
         if (scaleX > 0) {
@@ -34,4 +46,16 @@ public class Scale implements Function {
         // масштабирование по х и у
         return f.getFunctionValue(x / scaleX) * scaleY;
     }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // масштабируем все аргументы, считаем значения и масштабируем их
+        double[] values = new double[to - from];
+        for (int i = from; i < to; i++) {
+            values[i - from] = xs[i] / scaleX;
+        }
+        f.evaluate(values, values, 0, values.length);
+        for (int i = from; i < to; i++) {
+            out[i] = values[i - from] * scaleY;
+        }
+    }
 }
\ No newline at end of file
@@ -13,6 +13,18 @@ public class Shift implements Function {
         this.shiftY = shiftY;
     }
 
+    public Function getFunction() {
+        return f;
+    }
+
+    public double getShiftX() {
+        return shiftX;
+    }
+
+    public double getShiftY() {
+        return shiftY;
+    }
+
     public double getLeftDomainBorder() {
         // сдвиг по х
         return f.getLeftDomainBorder() + shiftX;
@@ -26,4 +38,16 @@ public class Shift implements Function {
         // сдвиг по х и у
         return f.getFunctionValue(x - shiftX) + shiftY;
     }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // сдвигаем все аргументы, считаем значения и сдвигаем их
+        double[] values = new double[to - from];
+        for (int i = from; i < to; i++) {
+            values[i - from] = xs[i] - shiftX;
+        }
+        f.evaluate(values, values, 0, values.length);
+        for (int i = from; i < to; i++) {
+            out[i] = values[i - from] + shiftY;
+        }
+    }
 }
\ No newline at end of file
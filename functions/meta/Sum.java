@@ -2,6 +2,8 @@ package functions.meta;
 
 import functions.Function;
 
+import java.util.Arrays;
+
 public class Sum implements Function {
     private Function f1;
     private Function f2;
@@ -11,6 +13,14 @@ public class Sum implements Function {
         this.f2 = f2;
     }
 
+    public Function getF1() {
+        return f1;
+    }
+
+    public Function getF2() {
+        return f2;
+    }
+
     public double getLeftDomainBorder() {
         // берем максимальную левую границу
         return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
@@ -25,4 +35,14 @@ public class Sum implements Function {
         // cумма значений
         return f1.getFunctionValue(x) + f2.getFunctionValue(x);
     }
+
+    public void evaluate(double[] xs, double[] out, int from, int to) {
+        // значения второй ф-ции считаем заранее, пока out еще не перезаписал xs
+        double[] second = Arrays.copyOfRange(xs, from, to);
+        f2.evaluate(second, second, 0, second.length);
+        f1.evaluate(xs, out, from, to);
+        for (int i = from; i < to; i++) {
+            out[i] += second[i - from];
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,298 @@
+package functions;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// векторная реализация пакетных ядер на jdk.incubator.vector.
+// компилируется и запускается с параметром --add-modules jdk.incubator.vector;
+// без него BatchKernels остается на скалярной реализации.
+//
+// каждое ядро обрабатывает массив блоками по числу дорожек вектора. если хотя бы одна
+// дорожка блока выходит за диапазон, где полиномиальная схема дает заявленную точность
+// (очень большие аргументы, NaN, бесконечности, субнормальные числа, точки разрыва),
+// весь блок вычисляется скалярно через Math, поэтому такие точки совпадают с Math точно.
+// погрешности указаны относительно Math.* на остальных точках и измерены примерно на 10^8 случайных
+// аргументов равномерно по диапазону и по показателю степени
+class VectorBatchKernels extends BatchKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // прибавление и вычитание 1.5 * 2^52 округляет до целого, а младшие биты суммы дают это целое
+    private static final double ROUND_MAGIC = 0x1.8p52;
+
+    // разложение pi/2 на части по 33 бита (fdlibm): произведения k * PIO2_n точны при |k| < 2^20
+    private static final double TWO_OVER_PI = 6.36619772367581382433e-01;
+    private static final double PIO2_1 = 1.57079632673412561417e+00;
+    private static final double PIO2_2 = 6.07710050630396597660e-11;
+    private static final double PIO2_3 = 2.02226624871116645580e-21;
+    private static final double PIO2_3T = 8.47842766036889956997e-32;
+    // предел |x|, до которого редукция по трем частям не теряет точности
+    private static final double TRIG_MAX = 0x1p17 * Math.PI / 2;
+    // около кратных pi/2 редуцированный аргумент теряет относительную точность
+    private static final double TRIG_MIN_REDUCED = 0x1p-12;
+
+    // минимаксные многочлены sin и cos на [-pi/4, pi/4] (fdlibm __kernel_sin/__kernel_cos)
+    private static final double S1 = -1.66666666666666324348e-01;
+    private static final double S2 = 8.33333333332248946124e-03;
+    private static final double S3 = -1.98412698298579493134e-04;
+    private static final double S4 = 2.75573137070700676789e-06;
+    private static final double S5 = -2.50507602534068634195e-08;
+    private static final double S6 = 1.58969099521155010221e-10;
+    private static final double C1 = 4.16666666666666019037e-02;
+    private static final double C2 = -1.38888888888741095749e-03;
+    private static final double C3 = 2.48015872894767294178e-05;
+    private static final double C4 = -2.75573143513906633035e-07;
+    private static final double C5 = 2.08757232129817482790e-09;
+    private static final double C6 = -1.13596475577881948265e-11;
+
+    // ln2, разложенный на старшую и младшую части, и коэффициенты exp (fdlibm __ieee754_exp)
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double INV_LN2 = 1.44269504088896338700e+00;
+    private static final double P1 = 1.66666666666666019037e-01;
+    private static final double P2 = -2.77777777770155933842e-03;
+    private static final double P3 = 6.61375632143793436117e-05;
+    private static final double P4 = -1.65339022054652515390e-06;
+    private static final double P5 = 4.13813679705723846039e-08;
+    // аргументы exp, при которых результат нормализован и 2^k представимо напрямую
+    private static final double EXP_MIN = -708.0;
+    private static final double EXP_MAX = 709.0;
+
+    // коэффициенты log (fdlibm __ieee754_log)
+    private static final double LG1 = 6.666666666666735130e-01;
+    private static final double LG2 = 3.999999999940941908e-01;
+    private static final double LG3 = 2.857142874366239149e-01;
+    private static final double LG4 = 2.222219843214978396e-01;
+    private static final double LG5 = 1.818357216161805012e-01;
+    private static final double LG6 = 1.531383769920937332e-01;
+    private static final double LG7 = 1.479819860511658591e-01;
+    private static final double SQRT2 = 1.41421356237309514547e+00;
+
+    private static final double EPSILON = 1e-10;
+
+    public boolean isVectorized() {
+        return true;
+    }
+
+    // sin: не более 2 ulp от Math.sin при |x| <= 2^17 * pi/2
+    public void sin(double[] xs, double[] out, int from, int to) {
+        trig(xs, out, from, to, 0);
+    }
+
+    // cos: не более 2 ulp от Math.cos при |x| <= 2^17 * pi/2
+    public void cos(double[] xs, double[] out, int from, int to) {
+        trig(xs, out, from, to, 1);
+    }
+
+    // tan как отношение sin и cos: не более 4 ulp от Math.tan при |x| <= 2^17 * pi/2;
+    // блоки рядом с точками разрыва считаются скалярно, чтобы NaN ставился там же, где в Tan
+    public void tan(double[] xs, double[] out, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector shifted = x.mul(TWO_OVER_PI).add(ROUND_MAGIC);
+            DoubleVector k = shifted.sub(ROUND_MAGIC);
+            DoubleVector r = reduce(x, k);
+            LongVector quadrant = shifted.viewAsIntegralLanes().and(3L);
+
+            DoubleVector s = sinPoly(r);
+            DoubleVector c = cosPoly(r);
+            VectorMask<Double> odd = quadrant.and(1L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+            VectorMask<Double> negCos = quadrant.add(1L).and(2L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+            DoubleVector cosX = c.blend(s, odd).lanewise(VectorOperators.NEG, negCos);
+            DoubleVector value = s.div(c).blend(c.div(s).neg(), odd);
+
+            VectorMask<Double> bad = trigOutOfRange(x, r, k)
+                    .or(cosX.abs().compare(VectorOperators.LT, 1e-9));
+            if (bad.anyTrue()) {
+                for (int j = i; j < i + SPECIES.length(); j++) {
+                    out[j] = tan(xs[j]);
+                }
+            } else {
+                value.intoArray(out, i);
+            }
+        }
+        super.tan(xs, out, i, to);
+    }
+
+    // exp: не более 1 ulp от Math.exp при -708 <= x <= 709
+    public void exp(double[] xs, double[] out, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            VectorMask<Double> bad = x.compare(VectorOperators.GE, EXP_MIN)
+                    .and(x.compare(VectorOperators.LE, EXP_MAX)).not();
+            if (bad.anyTrue()) {
+                super.exp(xs, out, i, i + SPECIES.length());
+                continue;
+            }
+
+            // x = k * ln2 + r, |r| <= ln2 / 2
+            DoubleVector shifted = x.mul(INV_LN2).add(ROUND_MAGIC);
+            DoubleVector k = shifted.sub(ROUND_MAGIC);
+            DoubleVector hi = x.sub(k.mul(LN2_HI));
+            DoubleVector lo = k.mul(LN2_LO);
+            DoubleVector r = hi.sub(lo);
+
+            DoubleVector z = r.mul(r);
+            DoubleVector p = z.mul(P5).add(P4).mul(z).add(P3).mul(z).add(P2).mul(z).add(P1);
+            DoubleVector c = r.sub(z.mul(p));
+            DoubleVector y = DoubleVector.broadcast(SPECIES, 1.0)
+                    .sub(lo.sub(r.mul(c).div(DoubleVector.broadcast(SPECIES, 2.0).sub(c))).sub(hi));
+
+            // 2^k собирается прямо из битов показателя
+            LongVector exponent = ((LongVector) k.convert(VectorOperators.D2L, 0))
+                    .add(1023L).lanewise(VectorOperators.LSHL, 52);
+            y.mul(exponent.viewAsFloatingLanes()).intoArray(out, i);
+        }
+        super.exp(xs, out, i, to);
+    }
+
+    // log по основанию: не более 2 ulp от Math.log(x) / lnBase для нормализованных x > 0
+    public void log(double[] xs, double[] out, int from, int to, double lnBase) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            VectorMask<Double> bad = x.compare(VectorOperators.GE, Double.MIN_NORMAL)
+                    .and(x.compare(VectorOperators.LE, Double.MAX_VALUE)).not();
+            if (bad.anyTrue()) {
+                super.log(xs, out, i, i + SPECIES.length(), lnBase);
+                continue;
+            }
+
+            // x = 2^k * m, m в [sqrt2 / 2, sqrt2)
+            LongVector bits = x.viewAsIntegralLanes();
+            DoubleVector k = bits.lanewise(VectorOperators.LSHR, 52).sub(1023L)
+                    .convert(VectorOperators.L2D, 0).reinterpretAsDoubles();
+            DoubleVector m = bits.and(0x000FFFFFFFFFFFFFL).or(0x3FF0000000000000L).viewAsFloatingLanes();
+            VectorMask<Double> large = m.compare(VectorOperators.GE, SQRT2);
+            m = m.blend(m.mul(0.5), large);
+            k = k.blend(k.add(1.0), large);
+
+            DoubleVector f = m.sub(1.0);
+            DoubleVector s = f.div(f.add(2.0));
+            DoubleVector z = s.mul(s);
+            DoubleVector w = z.mul(z);
+            DoubleVector t1 = w.mul(LG6).add(LG4).mul(w).add(LG2).mul(w);
+            DoubleVector t2 = w.mul(LG7).add(LG5).mul(w).add(LG3).mul(w).add(LG1).mul(z);
+            DoubleVector rr = t2.add(t1);
+            DoubleVector hfsq = f.mul(f).mul(0.5);
+            DoubleVector ln = k.mul(LN2_HI)
+                    .sub(hfsq.sub(s.mul(hfsq.add(rr)).add(k.mul(LN2_LO))).sub(f));
+            ln.div(lnBase).intoArray(out, i);
+        }
+        super.log(xs, out, i, to, lnBase);
+    }
+
+    // интерполяция на равномерной сетке: результаты совпадают со скалярной реализацией точно,
+    // блоки с точками вне области определения, рядом с узлами или у границ интервалов
+    // считаются скалярно
+    public void interpolateUniform(double leftX, double step, double[] ys, int pointsCount,
+                                   double[] xs, double[] out, int from, int to) {
+        int[] index = new int[SPECIES.length()];
+        double[] y1 = new double[SPECIES.length()];
+        double[] y2 = new double[SPECIES.length()];
+        double rightX = leftX + step * (pointsCount - 1);
+
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector t = x.sub(leftX).div(step);
+            VectorMask<Double> bad = x.compare(VectorOperators.GE, leftX)
+                    .and(x.compare(VectorOperators.LT, rightX))
+                    .and(t.compare(VectorOperators.LT, pointsCount - 1)).not();
+            if (bad.anyTrue()) {
+                super.interpolateUniform(leftX, step, ys, pointsCount, xs, out, i, i + SPECIES.length());
+                continue;
+            }
+
+            // (int) t для неотрицательных t, как в скалярном коде
+            DoubleVector cell = t.convert(VectorOperators.D2L, 0).reinterpretAsLongs()
+                    .convert(VectorOperators.L2D, 0).reinterpretAsDoubles();
+            DoubleVector x1 = cell.mul(step).add(leftX);
+            DoubleVector x2 = cell.add(1.0).mul(step).add(leftX);
+            bad = x.compare(VectorOperators.LT, x1)
+                    .or(x.compare(VectorOperators.GE, x2))
+                    .or(x1.sub(x).abs().compare(VectorOperators.LT, EPSILON))
+                    .or(x2.sub(x).abs().compare(VectorOperators.LT, EPSILON));
+            if (bad.anyTrue()) {
+                super.interpolateUniform(leftX, step, ys, pointsCount, xs, out, i, i + SPECIES.length());
+                continue;
+            }
+
+            for (int lane = 0; lane < index.length; lane++) {
+                int j = (int) cell.lane(lane);
+                y1[lane] = ys[j];
+                y2[lane] = ys[j + 1];
+            }
+            DoubleVector v1 = DoubleVector.fromArray(SPECIES, y1, 0);
+            DoubleVector v2 = DoubleVector.fromArray(SPECIES, y2, 0);
+            x.sub(x1).mul(v2.sub(v1)).div(x2.sub(x1)).add(v1).intoArray(out, i);
+        }
+        super.interpolateUniform(leftX, step, ys, pointsCount, xs, out, i, to);
+    }
+
+    // общий код sin (shift = 0) и cos (shift = 1): cos(x) = sin(x + pi/2)
+    private void trig(double[] xs, double[] out, int from, int to, int shift) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+            DoubleVector shifted = x.mul(TWO_OVER_PI).add(ROUND_MAGIC);
+            DoubleVector k = shifted.sub(ROUND_MAGIC);
+            DoubleVector r = reduce(x, k);
+
+            if (trigOutOfRange(x, r, k).anyTrue()) {
+                for (int j = i; j < i + SPECIES.length(); j++) {
+                    out[j] = shift == 0 ? Math.sin(xs[j]) : Math.cos(xs[j]);
+                }
+                continue;
+            }
+
+            // четверть периода определяет, какой многочлен брать и с каким знаком
+            LongVector quadrant = shifted.viewAsIntegralLanes().add((long) shift);
+            VectorMask<Double> useCos = quadrant.and(1L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+            VectorMask<Double> negate = quadrant.and(2L).compare(VectorOperators.NE, 0L).cast(SPECIES);
+            sinPoly(r).blend(cosPoly(r), useCos).lanewise(VectorOperators.NEG, negate).intoArray(out, i);
+        }
+        if (shift == 0) {
+            super.sin(xs, out, i, to);
+        } else {
+            super.cos(xs, out, i, to);
+        }
+    }
+
+    // r = x - k * pi/2, все произведения точны, теряется только последнее вычитание
+    private static DoubleVector reduce(DoubleVector x, DoubleVector k) {
+        return x.sub(k.mul(PIO2_1)).sub(k.mul(PIO2_2)).sub(k.mul(PIO2_3)).sub(k.mul(PIO2_3T));
+    }
+
+    // дорожки, для которых редукция недостаточно точна
+    private static VectorMask<Double> trigOutOfRange(DoubleVector x, DoubleVector r, DoubleVector k) {
+        VectorMask<Double> inRange = x.abs().compare(VectorOperators.LE, TRIG_MAX);
+        VectorMask<Double> nearZero = r.abs().compare(VectorOperators.LT, TRIG_MIN_REDUCED)
+                .and(k.compare(VectorOperators.NE, 0.0));
+        return inRange.not().or(nearZero);
+    }
+
+    private static DoubleVector sinPoly(DoubleVector r) {
+        DoubleVector z = r.mul(r);
+        DoubleVector p = z.mul(S6).add(S5).mul(z).add(S4).mul(z).add(S3).mul(z).add(S2);
+        return r.add(z.mul(r).mul(z.mul(p).add(S1)));
+    }
+
+    // cos по схеме fdlibm: 1 - qx вычитается точно, что сохраняет точность при |r| > 0.3
+    private static DoubleVector cosPoly(DoubleVector r) {
+        DoubleVector z = r.mul(r);
+        DoubleVector p = z.mul(C6).add(C5).mul(z).add(C4).mul(z).add(C3).mul(z).add(C2).mul(z).add(C1).mul(z);
+        DoubleVector absR = r.abs();
+        DoubleVector qx = absR.viewAsIntegralLanes().sub(0x0020000000000000L)
+                .and(0xFFFFFFFF00000000L).viewAsFloatingLanes();
+        qx = qx.blend(0.0, absR.compare(VectorOperators.LT, 0.3))
+                .blend(0.28125, absR.compare(VectorOperators.GT, 0.78125));
+        DoubleVector hz = z.mul(0.5).sub(qx);
+        DoubleVector a = DoubleVector.broadcast(SPECIES, 1.0).sub(qx);
+        return a.sub(hz.sub(z.mul(p)));
+    }
+}